@@ -0,0 +1,56 @@
+package com.hotelreservation.benchmark;
+
+import com.hotelreservation.model.Suite;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Verificación de traslape de una suite y búsqueda de suites libres en un rango de una semana
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AvailabilityBenchmark {
+    @Param({"100", "1000"})
+    public int suites;
+
+    @Param({"50"})
+    public int bookingsPerSuite;
+
+    private BenchmarkFixture fixture;
+    private LocalDate from;
+    private LocalDate to;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        fixture = new BenchmarkFixture(suites, 1000, bookingsPerSuite);
+        // A mitad del periodo reservado, traslapando una reservación de cada suite
+        from = LocalDate.now().plusWeeks(bookingsPerSuite / 2).plusDays(2);
+        to = from.plusDays(7);
+    }
+
+    @Benchmark
+    public boolean isBooked() {
+        String suiteId = fixture.suites.get(next++ % fixture.suites.size()).getId();
+        return fixture.bookingCalendar.isBooked(suiteId, from, to);
+    }
+
+    @Benchmark
+    public List<Suite> searchAvailableSuites() {
+        return fixture.suiteService.searchAvailableSuites(from, to, null, null, null);
+    }
+
+    @Benchmark
+    public List<Suite> searchAvailableSuitesByTypeAndPrice() {
+        return fixture.suiteService.searchAvailableSuites(from, to, "Deluxe", 100.0, 300.0);
+    }
+}
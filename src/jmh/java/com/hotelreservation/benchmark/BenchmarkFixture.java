@@ -0,0 +1,119 @@
+package com.hotelreservation.benchmark;
+
+import com.hotelreservation.journal.BookingJournal;
+import com.hotelreservation.model.Customer;
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.model.Suite;
+import com.hotelreservation.repository.CustomerRepository;
+import com.hotelreservation.repository.ReservationRepository;
+import com.hotelreservation.repository.SuiteRepository;
+import com.hotelreservation.repository.VersionedUpdates;
+import com.hotelreservation.service.AvailabilityIndex;
+import com.hotelreservation.service.BookingCalendar;
+import com.hotelreservation.service.CatalogVersion;
+import com.hotelreservation.service.CustomerService;
+import com.hotelreservation.service.LookupCache;
+import com.hotelreservation.service.NightClaims;
+import com.hotelreservation.service.OccupancyCounters;
+import com.hotelreservation.service.ReservationHolds;
+import com.hotelreservation.service.ReservationMetrics;
+import com.hotelreservation.service.ReservationService;
+import com.hotelreservation.service.SuiteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Servicios conectados a mano sobre repositorios en memoria, sin contexto de Spring.
+// Cada suite recibe bookingsPerSuite reservaciones de 3 noches, una por semana desde mañana;
+// los datos salen de una semilla fija para que todas las corridas midan lo mismo.
+final class BenchmarkFixture {
+    private static final String[] SUITE_TYPES = {"Standard", "Deluxe", "Junior", "Presidential"};
+
+    final SuiteRepository suiteRepository = InMemoryRepository.create(SuiteRepository.class);
+    final CustomerRepository customerRepository = InMemoryRepository.create(CustomerRepository.class);
+    final ReservationRepository reservationRepository = InMemoryRepository.create(ReservationRepository.class);
+
+    final AvailabilityIndex availabilityIndex;
+    final BookingCalendar bookingCalendar;
+    final SuiteService suiteService;
+    final CustomerService customerService;
+    final ReservationService reservationService;
+
+    final List<Suite> suites = new ArrayList<>();
+    final List<Customer> customers = new ArrayList<>();
+    final List<Reservation> reservations = new ArrayList<>();
+
+    // Primer día libre en todas las suites, después de las reservaciones sembradas
+    final LocalDate firstFreeDay;
+
+    BenchmarkFixture(int suiteCount, int customerCount, int bookingsPerSuite) {
+        this(suiteCount, customerCount, bookingsPerSuite, true);
+    }
+
+    // virtualThreads equivale a spring.threads.virtual.enabled: decide si las consultas de cliente y suite
+    // de cada reservación corren en paralelo en hilos virtuales o en el hilo que atiende la solicitud
+    BenchmarkFixture(int suiteCount, int customerCount, int bookingsPerSuite, boolean virtualThreads) {
+        Random random = new Random(42);
+        for (int i = 0; i < suiteCount; i++) {
+            suites.add(suiteRepository.save(new Suite(
+                    SUITE_TYPES[i % SUITE_TYPES.length], 80 + random.nextInt(400), true)));
+        }
+        for (int i = 0; i < customerCount; i++) {
+            customers.add(customerRepository.save(new Customer(
+                    "Customer " + i, "customer" + i + "@example.com", "+52 55 0000 " + i)));
+        }
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        for (Suite suite : suites) {
+            for (int week = 0; week < bookingsPerSuite; week++) {
+                Customer customer = customers.get(random.nextInt(customers.size()));
+                LocalDate checkIn = tomorrow.plusWeeks(week);
+                Reservation reservation = new Reservation(customer, suite, checkIn, checkIn.plusDays(3));
+                reservation.setCustomerName(customer.getName());
+                reservation.setSuiteType(suite.getType());
+                reservation.setSuitePrice(suite.getPrice());
+                reservations.add(reservationRepository.insert(reservation));
+            }
+        }
+        firstFreeDay = tomorrow.plusWeeks(bookingsPerSuite);
+
+        availabilityIndex = new AvailabilityIndex(suiteRepository, 366);
+        availabilityIndex.load();
+        bookingCalendar = new BookingCalendar(reservationRepository, availabilityIndex);
+        bookingCalendar.load();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LookupCache lookupCache = new LookupCache(meterRegistry, 10_000, 50_000, Duration.ofMinutes(10));
+        // Las actualizaciones con versión y la versión del catálogo usan MongoTemplate; los benchmarks solo crean
+        // y cancelan reservaciones
+        VersionedUpdates versionedUpdates = new VersionedUpdates(null, 3);
+        suiteService = new SuiteService(suiteRepository, availabilityIndex, bookingCalendar, lookupCache,
+                new CatalogVersion(null), versionedUpdates);
+        customerService = new CustomerService(customerRepository, lookupCache, versionedUpdates);
+        // Los contadores de ocupación escriben en Mongo con MongoTemplate; en los benchmarks van deshabilitados
+        OccupancyCounters occupancyCounters = new OccupancyCounters(null, event -> {}, false);
+        // Sin lista de espera: los avisos de noches liberadas no van a ningún lado
+        ApplicationEventPublisher events = event -> {};
+        // El diario se mide aparte en JournalBenchmark
+        BookingJournal journal = new BookingJournal(meterRegistry, false, Path.of("journal"), 64 << 20,
+                Duration.ofMillis(10), false);
+        ReservationHolds reservationHolds = new ReservationHolds(bookingCalendar, events, meterRegistry,
+                Duration.ofMinutes(10), 1000);
+        // Los reclamos de noches también usan MongoTemplate; con una sola instancia no hacen falta
+        NightClaims nightClaims = new NightClaims(null, false, Duration.ofMinutes(1));
+        reservationService = new ReservationService(reservationRepository, customerService, suiteService,
+                bookingCalendar, new ReservationMetrics(meterRegistry), occupancyCounters, versionedUpdates,
+                reservationHolds, events, journal, nightClaims, virtualThreads, 500);
+    }
+
+    // Simular el viaje de red a Mongo en cada llamada a los repositorios
+    void setRepositoryLatency(Duration latency) {
+        InMemoryRepository.setLatency(suiteRepository, latency);
+        InMemoryRepository.setLatency(customerRepository, latency);
+        InMemoryRepository.setLatency(reservationRepository, latency);
+    }
+}
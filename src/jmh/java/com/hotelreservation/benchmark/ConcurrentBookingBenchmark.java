@@ -0,0 +1,89 @@
+package com.hotelreservation.benchmark;
+
+import com.hotelreservation.model.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Prueba de carga: 10,000 reservaciones en vuelo a la vez, cada una creada y cancelada sobre su propia suite,
+// con una latencia fija por llamada a los repositorios para simular Mongo. Compara un pool de 200 hilos de
+// plataforma (el máximo por defecto de Tomcat) con un hilo virtual por solicitud; el resultado se reporta como
+// reservaciones por segundo. Se ejecuta con -Djdk.tracePinnedThreads=short para que cualquier camino que fije
+// un hilo virtual a su portador aparezca en la salida.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ConcurrentBookingBenchmark.IN_FLIGHT)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class ConcurrentBookingBenchmark {
+    static final int IN_FLIGHT = 10_000;
+
+    @Param({"platform-200", "virtual"})
+    public String executor;
+
+    @Param({"5"})
+    public int repositoryLatencyMillis;
+
+    private BenchmarkFixture fixture;
+    private ExecutorService executorService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = executor.equals("virtual");
+        fixture = new BenchmarkFixture(IN_FLIGHT, 1000, 1, virtual);
+        fixture.setRepositoryLatency(Duration.ofMillis(repositoryLatencyMillis));
+        executorService = virtual
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(200);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public int bookAndCancel() throws Exception {
+        List<Future<String>> inFlight = new ArrayList<>(IN_FLIGHT);
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            int suite = i;
+            inFlight.add(executorService.submit(() -> {
+                Reservation request = new Reservation();
+                request.setCustomerId(fixture.customers.get(suite % fixture.customers.size()).getId());
+                request.setSuiteId(fixture.suites.get(suite).getId());
+                request.setCheckInDate(fixture.firstFreeDay);
+                request.setCheckOutDate(fixture.firstFreeDay.plusDays(2));
+                String id = fixture.reservationService.createReservation(request).getId();
+                fixture.reservationService.cancelReservation(id);
+                return id;
+            }));
+        }
+        int completed = 0;
+        for (Future<String> booking : inFlight) {
+            booking.get();
+            completed++;
+        }
+        return completed;
+    }
+}
@@ -0,0 +1,137 @@
+package com.hotelreservation.benchmark;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+// Sustituto en memoria de un MongoRepository para los benchmarks: sin red ni base de datos,
+// así que las mediciones son deterministas. Los documentos se guardan ordenados por ID, igual que
+// el índice _id de Mongo, y las consultas derivadas de igualdad (findByX, existsByX) se resuelven
+// con el getter de la propiedad. Los métodos no soportados fallan en lugar de devolver datos falsos.
+// Opcionalmente cada llamada espera una latencia fija para simular el viaje de red a Mongo.
+final class InMemoryRepository implements InvocationHandler {
+    private final ConcurrentSkipListMap<String, Object> documents = new ConcurrentSkipListMap<>();
+    private volatile Duration latency = Duration.ZERO;
+
+    private InMemoryRepository() {}
+
+    static <R> R create(Class<R> repositoryType) {
+        return repositoryType.cast(Proxy.newProxyInstance(
+                repositoryType.getClassLoader(), new Class<?>[] {repositoryType}, new InMemoryRepository()));
+    }
+
+    static void setLatency(Object repository, Duration latency) {
+        ((InMemoryRepository) Proxy.getInvocationHandler(repository)).latency = latency;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        Duration delay = latency;
+        if (!delay.isZero() && method.getDeclaringClass() != Object.class) {
+            Thread.sleep(delay);
+        }
+        switch (name) {
+            case "save", "insert":
+                return args[0] instanceof Iterable<?> batch ? putAll(batch) : put(args[0]);
+            case "saveAll":
+                return putAll((Iterable<?>) args[0]);
+            case "findById":
+                return Optional.ofNullable(documents.get((String) args[0]));
+            case "findAllById": {
+                List<Object> found = new ArrayList<>();
+                for (Object id : (Iterable<?>) args[0]) {
+                    Object document = documents.get((String) id);
+                    if (document != null) {
+                        found.add(document);
+                    }
+                }
+                return found;
+            }
+            case "findAll":
+                return new ArrayList<>(documents.values());
+            case "existsById":
+                return documents.containsKey((String) args[0]);
+            case "count":
+                return (long) documents.size();
+            case "deleteById":
+                documents.remove((String) args[0]);
+                return null;
+            case "deleteAllById":
+                for (Object id : (Iterable<?>) args[0]) {
+                    documents.remove((String) id);
+                }
+                return null;
+            case "findAllBy":
+                return page(documents.values().stream(), (Pageable) args[0]);
+            case "findByIdGreaterThan":
+                return page(documents.tailMap((String) args[0], false).values().stream(), (Pageable) args[1]);
+            case "streamAllBy":
+                return new ArrayList<>(documents.values()).stream();
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "InMemoryRepository" + List.of(proxy.getClass().getInterfaces());
+            default:
+                break;
+        }
+        if (args != null && args.length == 1 && name.startsWith("findBy")) {
+            List<Object> found = filter(name.substring("findBy".length()), args[0]).toList();
+            return List.class.isAssignableFrom(method.getReturnType())
+                    ? found
+                    : found.isEmpty() ? null : found.get(0);
+        }
+        if (args != null && args.length == 1 && name.startsWith("existsBy")) {
+            return filter(name.substring("existsBy".length()), args[0]).findAny().isPresent();
+        }
+        throw new UnsupportedOperationException("Not supported in memory: " + method);
+    }
+
+    private Object put(Object document) throws ReflectiveOperationException {
+        Object id = document.getClass().getMethod("getId").invoke(document);
+        if (id == null) {
+            id = new ObjectId().toHexString();
+            document.getClass().getMethod("setId", String.class).invoke(document, id);
+        }
+        documents.put((String) id, document);
+        return document;
+    }
+
+    private List<Object> putAll(Iterable<?> batch) throws ReflectiveOperationException {
+        List<Object> saved = new ArrayList<>();
+        for (Object document : batch) {
+            saved.add(put(document));
+        }
+        return saved;
+    }
+
+    private Stream<Object> filter(String property, Object value) {
+        return documents.values().stream().filter(document -> Objects.equals(get(document, property), value));
+    }
+
+    private static Object get(Object document, String property) {
+        try {
+            return document.getClass().getMethod("get" + property).invoke(document);
+        } catch (InvocationTargetException | NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("No getter for " + property, e);
+        }
+    }
+
+    // Los documentos ya están ordenados por ID; solo se aplica el límite de la página
+    private static List<Object> page(Stream<Object> documents, Pageable pageable) {
+        return documents.limit(pageable.getPageSize()).toList();
+    }
+}
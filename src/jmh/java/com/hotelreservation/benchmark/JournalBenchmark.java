@@ -0,0 +1,66 @@
+package com.hotelreservation.benchmark;
+
+import com.hotelreservation.journal.BookingJournal;
+import com.hotelreservation.model.Reservation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Costo de anexar una reservación al diario desde 8 hilos, sin esperar el disco y esperándolo con group commit
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class JournalBenchmark {
+    @Param({"false", "true"})
+    public boolean sync;
+
+    private Path directory;
+    private BookingJournal journal;
+    private Reservation reservation;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        journal = new BookingJournal(new SimpleMeterRegistry(), true, directory, 64 << 20, Duration.ofMillis(10), sync);
+        journal.open();
+        reservation = new Reservation();
+        reservation.setId(new ObjectId().toHexString());
+        reservation.setCustomerId(new ObjectId().toHexString());
+        reservation.setSuiteId(new ObjectId().toHexString());
+        reservation.setCheckInDate(LocalDate.now().plusDays(1));
+        reservation.setCheckOutDate(LocalDate.now().plusDays(4));
+        reservation.setSuitePrice(180);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        journal.created(reservation);
+    }
+}
@@ -0,0 +1,70 @@
+package com.hotelreservation.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.hotelreservation.dto.CursorPage;
+import com.hotelreservation.model.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Endpoints de listado de reservaciones: lista completa, una página con cursor y exportación NDJSON,
+// incluyendo la resolución de referencias y la serialización de la respuesta
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ListBenchmark {
+    @Param({"100"})
+    public int suites;
+
+    @Param({"10", "50"})
+    public int bookingsPerSuite;
+
+    private BenchmarkFixture fixture;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        fixture = new BenchmarkFixture(suites, 1000, bookingsPerSuite);
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] getAllReservations() throws IOException {
+        return objectMapper.writeValueAsBytes(fixture.reservationService.getAllReservations());
+    }
+
+    @Benchmark
+    public byte[] getReservationsPage() throws IOException {
+        CursorPage<Reservation> page = fixture.reservationService.getReservationsPage(null, 100, null);
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public int streamReservations() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Stream<Reservation> reservations = fixture.reservationService.streamReservations()) {
+            Iterator<Reservation> iterator = reservations.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+            }
+        }
+        return out.size();
+    }
+}
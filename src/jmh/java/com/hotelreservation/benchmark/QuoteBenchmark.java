@@ -0,0 +1,70 @@
+package com.hotelreservation.benchmark;
+
+import com.hotelreservation.dto.StayQuote;
+import com.hotelreservation.model.RateRange;
+import com.hotelreservation.repository.RateRangeRepository;
+import com.hotelreservation.service.RateCalendar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cotización de una semana en todas las suites libres, con tarifas de temporada y de fin de semana por tipo
+// y tarifa propia en una de cada diez suites
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuoteBenchmark {
+    private static final String[] SUITE_TYPES = {"Standard", "Deluxe", "Junior", "Presidential"};
+
+    @Param({"1000", "5000"})
+    public int suites;
+
+    private RateCalendar rateCalendar;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixture fixture = new BenchmarkFixture(suites, 1000, 4);
+        rateCalendar = new RateCalendar(InMemoryRepository.create(RateRangeRepository.class),
+                fixture.availabilityIndex, 366, 10_000);
+
+        LocalDate today = LocalDate.now();
+        List<RateRange> ranges = new ArrayList<>();
+        for (String type : SUITE_TYPES) {
+            ranges.add(new RateRange(null, type, today, today.plusDays(365), 150));
+            for (LocalDate saturday = today; saturday.isBefore(today.plusDays(365)); saturday = saturday.plusWeeks(1)) {
+                ranges.add(new RateRange(null, type, saturday, saturday.plusDays(1), 220));
+            }
+        }
+        for (int i = 0; i < fixture.suites.size(); i += 10) {
+            ranges.add(new RateRange(fixture.suites.get(i).getId(), null, today.plusDays(20), today.plusDays(90), 300));
+        }
+        for (int start = 0; start < ranges.size(); start += 10_000) {
+            rateCalendar.addRanges(ranges.subList(start, Math.min(ranges.size(), start + 10_000)));
+        }
+
+        from = fixture.firstFreeDay;
+        to = from.plusDays(7);
+    }
+
+    @Benchmark
+    public List<StayQuote> quoteAllTypes() {
+        return rateCalendar.quote(from, to, null);
+    }
+
+    @Benchmark
+    public List<StayQuote> quoteOneType() {
+        return rateCalendar.quote(from, to, "Deluxe");
+    }
+}
@@ -0,0 +1,47 @@
+package com.hotelreservation.benchmark;
+
+import com.hotelreservation.model.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Crear y cancelar una reservación. Se mide el par porque crear ocupa las fechas en el calendario;
+// cancelar las libera y el calendario vuelve al mismo tamaño en cada invocación.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReservationBenchmark {
+    @Param({"100", "1000"})
+    public int suites;
+
+    @Param({"20"})
+    public int bookingsPerSuite;
+
+    private BenchmarkFixture fixture;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        fixture = new BenchmarkFixture(suites, 1000, bookingsPerSuite);
+    }
+
+    @Benchmark
+    public String createAndCancelReservation() {
+        int i = next++;
+        Reservation request = new Reservation();
+        request.setCustomerId(fixture.customers.get(i % fixture.customers.size()).getId());
+        request.setSuiteId(fixture.suites.get(i % fixture.suites.size()).getId());
+        request.setCheckInDate(fixture.firstFreeDay);
+        request.setCheckOutDate(fixture.firstFreeDay.plusDays(2));
+        String id = fixture.reservationService.createReservation(request).getId();
+        fixture.reservationService.cancelReservation(id);
+        return id;
+    }
+}
@@ -0,0 +1,55 @@
+package com.hotelreservation.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.hotelreservation.model.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialización JSON de reservaciones con el cliente y la suite resueltos,
+// con la misma configuración de fechas que aplica Spring Boot
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+    private ObjectMapper objectMapper;
+    private Reservation reservation;
+    private List<Reservation> reservations;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        BenchmarkFixture fixture = new BenchmarkFixture(100, 100, 1);
+        reservations = fixture.reservationService.resolveReferences(fixture.reservations);
+        reservation = reservations.get(0);
+    }
+
+    @Benchmark
+    public byte[] serializeReservation() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reservation);
+    }
+
+    @Benchmark
+    public byte[] serializeReservationList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reservations);
+    }
+
+    @Benchmark
+    public Reservation deserializeReservation() throws IOException {
+        return objectMapper.readValue(objectMapper.writeValueAsBytes(reservation), Reservation.class);
+    }
+}
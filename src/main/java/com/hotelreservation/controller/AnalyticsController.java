@@ -0,0 +1,68 @@
+package com.hotelreservation.controller;
+
+import com.hotelreservation.dto.OccupancyStats;
+import com.hotelreservation.dto.ReportPeriod;
+import com.hotelreservation.dto.RevenueStats;
+import com.hotelreservation.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+@Tag(name = "Analytics", description = "API de reportes de ocupación e ingresos")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @Autowired
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @Operation(summary = "Obtener la ocupación por periodo y tipo de suite")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reporte de ocupación generado"),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    @GetMapping("/occupancy")
+    public ResponseEntity<List<OccupancyStats>> getOccupancy(
+            @Parameter(description = "Primera noche del reporte") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Última noche del reporte") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Periodo de agrupación: DAY, WEEK o MONTH") @RequestParam(defaultValue = "DAY") ReportPeriod period) {
+        try {
+            return ResponseEntity.ok(analyticsService.getOccupancy(from, to, period));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Obtener los ingresos por periodo y tipo de suite")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reporte de ingresos generado"),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    @GetMapping("/revenue")
+    public ResponseEntity<List<RevenueStats>> getRevenue(
+            @Parameter(description = "Primera noche del reporte") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Última noche del reporte") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Periodo de agrupación: DAY, WEEK o MONTH") @RequestParam(defaultValue = "DAY") ReportPeriod period) {
+        try {
+            return ResponseEntity.ok(analyticsService.getRevenue(from, to, period));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
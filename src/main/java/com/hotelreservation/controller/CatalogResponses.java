@@ -0,0 +1,98 @@
+package com.hotelreservation.controller;
+
+import com.hotelreservation.service.CatalogVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Respuestas del catálogo de suites con ETag y Cache-Control.
+// El ETag sale de la versión del catálogo y no del cuerpo, así que un If-None-Match vigente se responde
+// con 304 sin consultar Mongo ni serializar. La versión se lee antes de la consulta: si una escritura
+// ocurre en medio, la respuesta queda con la versión anterior y el siguiente GET la descarga otra vez.
+// Las respuestas en gzip son otra representación y llevan su propio ETag, con el sufijo -gzip.
+@Component
+class CatalogResponses {
+    private final CatalogVersion catalogVersion;
+    private final CacheControl cacheControl;
+
+    @Autowired
+    CatalogResponses(
+            CatalogVersion catalogVersion,
+            @Value("${hotel.catalog.http.max-age:0s}") Duration maxAge,
+            @Value("${hotel.catalog.http.s-max-age:0s}") Duration sharedMaxAge) {
+        this.catalogVersion = catalogVersion;
+        CacheControl cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+        if (maxAge.isZero()) {
+            cacheControl = cacheControl.mustRevalidate();
+        }
+        if (!sharedMaxAge.isZero()) {
+            cacheControl = cacheControl.sMaxAge(sharedMaxAge);
+        }
+        this.cacheControl = cacheControl;
+    }
+
+    // Responder 304 si el cliente ya tiene la versión actual; si no, ejecutar la consulta y etiquetar
+    // la respuesta cuando sea exitosa
+    <T> ResponseEntity<T> conditional(WebRequest request, Supplier<ResponseEntity<T>> query) {
+        return conditional(request, etag -> query.get());
+    }
+
+    // Igual que el anterior; la consulta recibe el ETag de la versión leída para validar contenido precalculado
+    <T> ResponseEntity<T> conditional(WebRequest request, Function<String, ResponseEntity<T>> query) {
+        String etag = catalogVersion.etag();
+        String matched = matchingETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag);
+        if (matched != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(matched)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity<T> response = query.apply(etag);
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        boolean gzip = "gzip".equals(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(gzip ? gzipETag(etag) : etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .body(response.getBody());
+    }
+
+    // If-None-Match usa comparación débil: se ignora el prefijo W/ y cualquiera de las dos representaciones
+    // de la versión actual cuenta como vigente
+    private static String matchingETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        String gzipETag = gzipETag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return etag;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals(gzipETag)) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    private static String gzipETag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+}
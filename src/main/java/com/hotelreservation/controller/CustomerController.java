@@ -1,10 +1,17 @@
 package com.hotelreservation.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelreservation.dto.CursorPage;
 import com.hotelreservation.model.Customer;
 import com.hotelreservation.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,16 +21,19 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/customers")
 @CrossOrigin(origins = "*")
 @Tag(name = "Customer", description = "API de gestión de clientes")
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, ObjectMapper objectMapper) {
         this.customerService = customerService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Obtener todos los clientes")
@@ -36,6 +46,31 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.getAllCustomers());
     }
 
+    @Operation(summary = "Obtener clientes por páginas con cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de clientes encontrada"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválido")
+    })
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Customer>> getCustomersPage(
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página") @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(customerService.getCustomersPage(cursor, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Exportar todos los clientes como NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo de clientes, un documento por línea")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCustomers() {
+        return NdjsonResponses.stream(objectMapper, customerService::streamCustomers);
+    }
+
     @Operation(summary = "Obtener un cliente por ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cliente encontrado"),
@@ -71,7 +106,8 @@ public class CustomerController {
     @Operation(summary = "Actualizar un cliente existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cliente actualizado exitosamente"),
-            @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+            @ApiResponse(responseCode = "404", description = "Cliente no encontrado"),
+            @ApiResponse(responseCode = "409", description = "El cliente cambió desde la versión enviada")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Customer> updateCustomer(
@@ -80,6 +116,8 @@ public class CustomerController {
         try {
             Customer updatedCustomer = customerService.updateCustomer(id, customer);
             return ResponseEntity.ok(updatedCustomer);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
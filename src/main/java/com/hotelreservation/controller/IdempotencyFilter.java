@@ -0,0 +1,181 @@
+package com.hotelreservation.controller;
+
+import com.hotelreservation.model.IdempotencyRecord;
+import com.hotelreservation.service.IdempotencyStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+
+// Soporte del encabezado Idempotency-Key en los POST que crean reservaciones, suites y clientes.
+// La primera solicitud con una llave se ejecuta y su respuesta se guarda; los reintentos con la misma llave
+// y el mismo cuerpo reciben esa respuesta sin volver a ejecutarse. Si la primera sigue en proceso se responde
+// 409, y si la llave se reutiliza con otro cuerpo, 422. Las respuestas 5xx no se guardan para que el
+// reintento vuelva a intentar la escritura. Con el perfil reactive el mismo contrato lo cumple IdempotencyWebFilter.
+@Component
+@Profile("!reactive")
+public class IdempotencyFilter extends OncePerRequestFilter {
+    static final String HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+    static final Set<String> PATHS = Set.of("/api/reservations", "/api/suites", "/api/customers");
+
+    private final IdempotencyStore store;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    private final Counter replays;
+
+    @Autowired
+    public IdempotencyFilter(IdempotencyStore store, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.replays = meterRegistry.counter("hotel.idempotency.replays");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !PATHS.contains(urlPathHelper.getPathWithinApplication(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HEADER);
+        if (header.isBlank() || header.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + HEADER);
+            return;
+        }
+        String path = urlPathHelper.getPathWithinApplication(request);
+        // Las llaves son por ruta: la misma llave en dos recursos distintos no choca
+        String key = path + "|" + header;
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(request.getMethod(), path, cachedRequest.body);
+
+        Optional<IdempotencyRecord> existing = store.claim(key, fingerprint);
+        if (existing.isPresent()) {
+            replay(existing.get(), fingerprint, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(cachedRequest, cachedResponse);
+        } catch (IOException | ServletException | RuntimeException e) {
+            store.release(key);
+            throw e;
+        }
+        if (cachedResponse.getStatus() >= 500) {
+            store.release(key);
+        } else {
+            store.complete(key, cachedResponse.getStatus(), cachedResponse.getContentType(),
+                    cachedResponse.getContentAsByteArray());
+        }
+        cachedResponse.copyBodyToResponse();
+    }
+
+    private void replay(IdempotencyRecord record, String fingerprint, HttpServletResponse response) throws IOException {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), HEADER + " was already used with a different request");
+            return;
+        }
+        if (!record.isCompleted()) {
+            response.sendError(HttpStatus.CONFLICT.value(), "A request with this " + HEADER + " is still in progress");
+            return;
+        }
+        replays.increment();
+        response.setStatus(record.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        byte[] body = record.getBody() == null ? new byte[0] : record.getBody();
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    static String fingerprint(String method, String path, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Solicitud con el cuerpo leído por adelantado para calcular la huella antes de ejecutarla
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // El cuerpo ya está en memoria: se avisa de inmediato que hay datos y que se leyeron todos
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.hotelreservation.controller;
+
+import com.hotelreservation.model.IdempotencyRecord;
+import com.hotelreservation.service.IdempotencyStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+// Soporte del encabezado Idempotency-Key con el perfil reactive, con el mismo contrato que IdempotencyFilter.
+// El cuerpo de la solicitud se junta en memoria para calcular la huella y se vuelve a entregar al controlador;
+// la respuesta se copia al escribirse para guardarla. El almacén es bloqueante, así que sus llamadas corren
+// en el scheduler boundedElastic. Si el controlador termina con error la llave se libera, igual que con 5xx.
+@Component
+@Profile("reactive")
+public class IdempotencyWebFilter implements WebFilter {
+    private final IdempotencyStore store;
+    private final Counter replays;
+
+    @Autowired
+    public IdempotencyWebFilter(IdempotencyStore store, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.replays = meterRegistry.counter("hotel.idempotency.replays");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String header = request.getHeaders().getFirst(IdempotencyFilter.HEADER);
+        String path = request.getPath().pathWithinApplication().value();
+        if (!HttpMethod.POST.equals(request.getMethod()) || header == null || !IdempotencyFilter.PATHS.contains(path)) {
+            return chain.filter(exchange);
+        }
+        if (header.isBlank() || header.length() > IdempotencyFilter.MAX_KEY_LENGTH) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid " + IdempotencyFilter.HEADER));
+        }
+        // Las llaves son por ruta: la misma llave en dos recursos distintos no choca
+        String key = path + "|" + header;
+        return DataBufferUtils.join(request.getBody())
+                .map(IdempotencyWebFilter::toBytes)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(body -> {
+                    String fingerprint = IdempotencyFilter.fingerprint(request.getMethod().name(), path, body);
+                    return blocking(() -> store.claim(key, fingerprint))
+                            .flatMap(existing -> existing.isPresent()
+                                    ? replay(existing.get(), fingerprint, exchange.getResponse())
+                                    : execute(exchange, chain, key, body));
+                });
+    }
+
+    private Mono<Void> execute(ServerWebExchange exchange, WebFilterChain chain, String key, byte[] body) {
+        ServerHttpRequest cachedRequest = new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }
+        };
+        CachedBodyResponse cachedResponse = new CachedBodyResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().request(cachedRequest).response(cachedResponse).build())
+                .then(Mono.defer(() -> {
+                    HttpStatusCode status = cachedResponse.getStatusCode() == null ? HttpStatus.OK : cachedResponse.getStatusCode();
+                    if (status.is5xxServerError()) {
+                        return blocking(() -> release(key));
+                    }
+                    MediaType contentType = cachedResponse.getHeaders().getContentType();
+                    return blocking(() -> {
+                        store.complete(key, status.value(), contentType == null ? null : contentType.toString(),
+                                cachedResponse.body);
+                        return true;
+                    });
+                }))
+                .onErrorResume(e -> blocking(() -> release(key)).then(Mono.error(e)))
+                .doOnCancel(() -> blocking(() -> release(key)).subscribe())
+                .then();
+    }
+
+    private Mono<Void> replay(IdempotencyRecord record, String fingerprint, ServerHttpResponse response) {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    IdempotencyFilter.HEADER + " was already used with a different request"));
+        }
+        if (!record.isCompleted()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this " + IdempotencyFilter.HEADER + " is still in progress"));
+        }
+        replays.increment();
+        response.setStatusCode(HttpStatusCode.valueOf(record.getStatus()));
+        response.getHeaders().set(IdempotencyFilter.REPLAYED_HEADER, "true");
+        if (record.getContentType() != null) {
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, record.getContentType());
+        }
+        byte[] body = record.getBody() == null ? new byte[0] : record.getBody();
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private boolean release(String key) {
+        store.release(key);
+        return true;
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    // Respuesta que guarda una copia del cuerpo mientras lo escribe
+    private static final class CachedBodyResponse extends ServerHttpResponseDecorator {
+        private byte[] body = new byte[0];
+
+        CachedBodyResponse(ServerHttpResponse response) {
+            super(response);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> content) {
+            return DataBufferUtils.join(content)
+                    .map(IdempotencyWebFilter::toBytes)
+                    .flatMap(bytes -> {
+                        body = bytes;
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.hotelreservation.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Respuestas NDJSON (un documento JSON por línea) escritas mientras se recorre el cursor de Mongo,
+// sin construir la colección completa en memoria
+final class NdjsonResponses {
+    private static final int FLUSH_EVERY = 500;
+
+    private NdjsonResponses() {}
+
+    static <T> ResponseEntity<StreamingResponseBody> stream(ObjectMapper objectMapper, Supplier<Stream<T>> source) {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            try (Stream<T> items = source.get()) {
+                Iterator<T> iterator = items.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    out.write('\n');
+                    if (++written % FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                }
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,65 @@
+package com.hotelreservation.controller;
+
+import com.hotelreservation.dto.StayQuote;
+import com.hotelreservation.model.RateRange;
+import com.hotelreservation.service.RateCalendar;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+@Tag(name = "Rate", description = "API de tarifas por noche y cotizaciones")
+public class RateController {
+
+    private final RateCalendar rateCalendar;
+
+    @Autowired
+    public RateController(RateCalendar rateCalendar) {
+        this.rateCalendar = rateCalendar;
+    }
+
+    @Operation(summary = "Registrar tarifas por noche para rangos de fechas de suites o tipos de suite")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rangos guardados y aplicados"),
+            @ApiResponse(responseCode = "400", description = "Rango, precio o tamaño de lote inválido")
+    })
+    @PostMapping("/rates")
+    public ResponseEntity<List<RateRange>> addRates(
+            @Parameter(description = "Rangos de tarifas; en los traslapes gana el último") @RequestBody List<RateRange> ranges) {
+        try {
+            return ResponseEntity.ok(rateCalendar.addRanges(ranges));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Cotizar una estancia en las suites libres, de menor a mayor precio")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cotizaciones por suite"),
+            @ApiResponse(responseCode = "400", description = "Fechas inválidas o fuera del horizonte de tarifas")
+    })
+    @GetMapping("/quotes")
+    public ResponseEntity<List<StayQuote>> getQuotes(
+            @Parameter(description = "Fecha de entrada") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Fecha de salida") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Tipo de suite") @RequestParam(required = false) String type) {
+        try {
+            return ResponseEntity.ok(rateCalendar.quote(from, to, type));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
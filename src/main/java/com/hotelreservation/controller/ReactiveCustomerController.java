@@ -0,0 +1,114 @@
+package com.hotelreservation.controller;
+
+import com.hotelreservation.model.Customer;
+import com.hotelreservation.service.ReactiveCustomerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Mismas rutas que CustomerController sobre WebFlux, activo solo con el perfil "reactive"
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/customers")
+@CrossOrigin(origins = "*")
+@Tag(name = "Customer", description = "API de gestión de clientes")
+public class ReactiveCustomerController {
+
+    private final ReactiveCustomerService customerService;
+
+    @Autowired
+    public ReactiveCustomerController(ReactiveCustomerService customerService) {
+        this.customerService = customerService;
+    }
+
+    @Operation(summary = "Obtener todos los clientes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de clientes encontrada"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping
+    public Flux<Customer> getAllCustomers() {
+        return customerService.getAllCustomers();
+    }
+
+    @Operation(summary = "Exportar todos los clientes como NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo de clientes, un documento por línea")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Customer> streamCustomers() {
+        return customerService.getAllCustomers();
+    }
+
+    @Operation(summary = "Obtener un cliente por ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cliente encontrado"),
+            @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+    })
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Customer>> getCustomerById(
+            @Parameter(description = "ID del cliente") @PathVariable String id) {
+        return customerService.getCustomerById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Obtener un cliente por email
+    @GetMapping("/email/{email}")
+    public Mono<ResponseEntity<Customer>> getCustomerByEmail(@PathVariable String email) {
+        return customerService.getCustomerByEmail(email)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Crear un nuevo cliente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cliente creado exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Datos del cliente inválidos")
+    })
+    @PostMapping
+    public Mono<Customer> createCustomer(
+            @Parameter(description = "Datos del cliente") @RequestBody Customer customer) {
+        return customerService.createCustomer(customer);
+    }
+
+    @Operation(summary = "Actualizar un cliente existente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cliente actualizado exitosamente"),
+            @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+    })
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Customer>> updateCustomer(
+            @Parameter(description = "ID del cliente") @PathVariable String id,
+            @Parameter(description = "Datos actualizados del cliente") @RequestBody Customer customer) {
+        return customerService.updateCustomer(id, customer)
+                .map(ResponseEntity::ok)
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    @Operation(summary = "Eliminar un cliente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cliente eliminado exitosamente"),
+            @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+    })
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteCustomer(
+            @Parameter(description = "ID del cliente") @PathVariable String id) {
+        return customerService.deleteCustomer(id)
+                .then(Mono.just(ResponseEntity.ok().<Void>build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+}
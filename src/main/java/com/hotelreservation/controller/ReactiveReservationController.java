@@ -0,0 +1,135 @@
+package com.hotelreservation.controller;
+
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.service.ReactiveReservationService;
+import com.hotelreservation.service.ReservationConflictException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Mismas rutas que ReservationController sobre WebFlux, activo solo con el perfil "reactive"
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/reservations")
+@CrossOrigin(origins = "*")
+@Tag(name = "Reservation", description = "API de gestión de reservaciones")
+public class ReactiveReservationController {
+    private final ReactiveReservationService reservationService;
+
+    @Autowired
+    public ReactiveReservationController(ReactiveReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @Operation(summary = "Obtener todas las reservaciones")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de reservaciones encontrada"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping
+    public Flux<Reservation> getAllReservations() {
+        return reservationService.getAllReservations();
+    }
+
+    @Operation(summary = "Exportar todas las reservaciones como NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo de reservaciones, un documento por línea")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Reservation> streamReservations() {
+        return reservationService.streamReservations();
+    }
+
+    @Operation(summary = "Obtener una reservación por ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservación encontrada"),
+            @ApiResponse(responseCode = "404", description = "Reservación no encontrada")
+    })
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Reservation>> getReservationById(
+            @Parameter(description = "ID de la reservación") @PathVariable String id) {
+        return reservationService.getReservationById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Obtener reservaciones por cliente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de reservaciones del cliente encontrada"),
+            @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+    })
+    @GetMapping("/customer/{customerId}")
+    public Flux<Reservation> getReservationsByCustomer(
+            @Parameter(description = "ID del cliente") @PathVariable String customerId) {
+        return reservationService.getReservationsByCustomer(customerId);
+    }
+
+    @Operation(summary = "Obtener reservaciones por suite")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de reservaciones de la suite encontrada"),
+            @ApiResponse(responseCode = "404", description = "Suite no encontrada")
+    })
+    @GetMapping("/suite/{suiteId}")
+    public Flux<Reservation> getReservationsBySuite(
+            @Parameter(description = "ID de la suite") @PathVariable String suiteId) {
+        return reservationService.getReservationsBySuite(suiteId);
+    }
+
+    @Operation(summary = "Crear una nueva reservación")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservación creada exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Datos de reservación inválidos"),
+            @ApiResponse(responseCode = "409", description = "La suite ya está reservada en esas fechas")
+    })
+    @PostMapping
+    public Mono<ResponseEntity<Reservation>> createReservation(
+            @Parameter(description = "Datos de la reservación") @RequestBody Reservation reservation) {
+        return reservationService.createReservation(reservation)
+                .map(ResponseEntity::ok)
+                .onErrorResume(ReservationConflictException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()));
+    }
+
+    @Operation(summary = "Actualizar una reservación existente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservación actualizada exitosamente"),
+            @ApiResponse(responseCode = "404", description = "Reservación no encontrada"),
+            @ApiResponse(responseCode = "409", description = "La suite ya está reservada en esas fechas")
+    })
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Reservation>> updateReservation(
+            @Parameter(description = "ID de la reservación") @PathVariable String id,
+            @Parameter(description = "Datos actualizados de la reservación") @RequestBody Reservation reservation) {
+        return reservationService.updateReservation(id, reservation)
+                .map(ResponseEntity::ok)
+                .onErrorResume(ReservationConflictException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()))
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    @Operation(summary = "Cancelar una reservación")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservación cancelada exitosamente"),
+            @ApiResponse(responseCode = "404", description = "Reservación no encontrada")
+    })
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> cancelReservation(
+            @Parameter(description = "ID de la reservación") @PathVariable String id) {
+        return reservationService.cancelReservation(id)
+                .then(Mono.just(ResponseEntity.ok().<Void>build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+}
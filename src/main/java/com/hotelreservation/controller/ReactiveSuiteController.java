@@ -0,0 +1,184 @@
+package com.hotelreservation.controller;
+
+import com.hotelreservation.model.Suite;
+import com.hotelreservation.service.ReactiveSuiteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// Mismas rutas que SuiteController sobre WebFlux, activo solo con el perfil "reactive"
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/suites")
+@CrossOrigin(origins = "*")
+@Tag(name = "Suite", description = "API de gestión de suites")
+public class ReactiveSuiteController {
+
+    private final ReactiveSuiteService suiteService;
+
+    @Autowired
+    public ReactiveSuiteController(ReactiveSuiteService suiteService) {
+        this.suiteService = suiteService;
+    }
+
+    @Operation(summary = "Obtener todas las suites")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de suites encontrada"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    @GetMapping
+    public Flux<Suite> getAllSuites() {
+        return suiteService.getAllSuites();
+    }
+
+    @Operation(summary = "Exportar todas las suites como NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo de suites, un documento por línea")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Suite> streamSuites() {
+        return suiteService.getAllSuites();
+    }
+
+    @Operation(summary = "Obtener una suite por ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suite encontrada"),
+            @ApiResponse(responseCode = "404", description = "Suite no encontrada")
+    })
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Suite>> getSuiteById(
+            @Parameter(description = "ID de la suite") @PathVariable String id) {
+        return suiteService.getSuiteById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Obtener suites por tipo
+    @GetMapping("/type/{type}")
+    public Flux<Suite> getSuitesByType(@PathVariable String type) {
+        return suiteService.getSuitesByType(type);
+    }
+
+    // Obtener suites disponibles
+    @GetMapping("/available")
+    public Flux<Suite> getAvailableSuites() {
+        return suiteService.getAvailableSuites();
+    }
+
+    // Obtener suites por tipo y disponibilidad
+    @GetMapping("/type/{type}/available/{available}")
+    public Flux<Suite> getSuitesByTypeAndAvailability(
+            @PathVariable String type,
+            @PathVariable boolean available) {
+        return suiteService.getSuitesByTypeAndAvailability(type, available);
+    }
+
+    // Obtener suites por rango de precio
+    @GetMapping("/price-range")
+    public Flux<Suite> getSuitesByPriceRange(
+            @RequestParam double minPrice,
+            @RequestParam double maxPrice) {
+        return suiteService.getSuitesByPriceRange(minPrice, maxPrice);
+    }
+
+    @Operation(summary = "Buscar suites libres en un rango de fechas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de suites libres encontrada"),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    @GetMapping("/availability")
+    public Mono<ResponseEntity<Flux<Suite>>> searchAvailableSuites(
+            @Parameter(description = "Fecha inicial") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Fecha final") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Tipo de suite") @RequestParam(required = false) String type,
+            @Parameter(description = "Precio mínimo") @RequestParam(required = false) Double minPrice,
+            @Parameter(description = "Precio máximo") @RequestParam(required = false) Double maxPrice) {
+        if (from.isAfter(to)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.just(ResponseEntity.ok(suiteService.searchAvailableSuites(from, to, type, minPrice, maxPrice)));
+    }
+
+    @Operation(summary = "Crear una nueva suite")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suite creada exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Datos de la suite inválidos")
+    })
+    @PostMapping
+    public Mono<Suite> createSuite(
+            @Parameter(description = "Datos de la suite") @RequestBody Suite suite) {
+        return suiteService.createSuite(suite);
+    }
+
+    @Operation(summary = "Actualizar una suite existente")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suite actualizada exitosamente"),
+            @ApiResponse(responseCode = "404", description = "Suite no encontrada")
+    })
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Suite>> updateSuite(
+            @Parameter(description = "ID de la suite") @PathVariable String id,
+            @Parameter(description = "Datos actualizados de la suite") @RequestBody Suite suite) {
+        return suiteService.updateSuite(id, suite)
+                .map(ResponseEntity::ok)
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    @Operation(summary = "Verificar si una suite está libre en un rango de fechas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "true si la suite se ofrece y no tiene reservaciones en el rango"),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas inválido"),
+            @ApiResponse(responseCode = "404", description = "Suite no encontrada")
+    })
+    @GetMapping("/{id}/availability")
+    public Mono<ResponseEntity<Boolean>> isAvailable(
+            @Parameter(description = "ID de la suite") @PathVariable String id,
+            @Parameter(description = "Fecha inicial") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Fecha final") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return suiteService.isAvailable(id, from, to)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    // Actualizar disponibilidad de una suite (si se ofrece para reservar)
+    @PatchMapping("/{id}/availability")
+    public Mono<ResponseEntity<Suite>> updateAvailability(
+            @PathVariable String id,
+            @RequestParam boolean available) {
+        return suiteService.updateAvailability(id, available)
+                .map(ResponseEntity::ok)
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    @Operation(summary = "Eliminar una suite")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suite eliminada exitosamente"),
+            @ApiResponse(responseCode = "404", description = "Suite no encontrada")
+    })
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteSuite(
+            @Parameter(description = "ID de la suite") @PathVariable String id) {
+        return suiteService.deleteSuite(id)
+                .then(Mono.just(ResponseEntity.ok().<Void>build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+}
@@ -1,11 +1,22 @@
 package com.hotelreservation.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelreservation.dto.BatchMode;
+import com.hotelreservation.dto.BatchReservationResult;
+import com.hotelreservation.dto.CursorPage;
+import com.hotelreservation.dto.ReservationHold;
 import com.hotelreservation.model.Reservation;
+import com.hotelreservation.service.ReservationConflictException;
 import com.hotelreservation.service.ReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,16 +29,19 @@ import java.time.LocalDate;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/reservations")
 @CrossOrigin(origins = "*")
 @Tag(name = "Reservation", description = "API de gestión de reservaciones")
 public class ReservationController {
     private static final Logger logger = LoggerFactory.getLogger(ReservationController.class);
     private final ReservationService reservationService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService, ObjectMapper objectMapper) {
         this.reservationService = reservationService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Obtener todas las reservaciones")
@@ -40,6 +54,32 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.getAllReservations());
     }
 
+    @Operation(summary = "Obtener reservaciones por páginas con cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de reservaciones encontrada"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválido")
+    })
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Reservation>> getReservationsPage(
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Orden: id o checkInDate") @RequestParam(required = false) String sort) {
+        try {
+            return ResponseEntity.ok(reservationService.getReservationsPage(cursor, size, sort));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Exportar todas las reservaciones como NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo de reservaciones, un documento por línea")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamReservations() {
+        return NdjsonResponses.stream(objectMapper, reservationService::streamReservations);
+    }
+
     @Operation(summary = "Obtener una reservación por ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Reservación encontrada"),
@@ -78,18 +118,91 @@ public class ReservationController {
     @Operation(summary = "Crear una nueva reservación")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Reservación creada exitosamente"),
-            @ApiResponse(responseCode = "400", description = "Datos de reservación inválidos")
+            @ApiResponse(responseCode = "400", description = "Datos de reservación inválidos"),
+            @ApiResponse(responseCode = "409", description = "La suite ya está reservada en esas fechas")
     })
     @PostMapping
     public ResponseEntity<Reservation> createReservation(
             @Parameter(description = "Datos de la reservación") @RequestBody Reservation reservation) {
-        return ResponseEntity.ok(reservationService.createReservation(reservation));
+        try {
+            return ResponseEntity.ok(reservationService.createReservation(reservation));
+        } catch (ReservationConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @Operation(summary = "Bloquear una suite y fechas por un tiempo limitado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bloqueo creado; vence en expiresAt si no se confirma"),
+            @ApiResponse(responseCode = "400", description = "Datos de reservación inválidos"),
+            @ApiResponse(responseCode = "409", description = "La suite ya está reservada o bloqueada en esas fechas")
+    })
+    @PostMapping("/holds")
+    public ResponseEntity<ReservationHold> placeHold(
+            @Parameter(description = "Datos de la reservación a bloquear") @RequestBody Reservation reservation) {
+        try {
+            return ResponseEntity.ok(reservationService.placeHold(reservation));
+        } catch (ReservationConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Confirmar un bloqueo como reservación")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservación creada con el ID del bloqueo"),
+            @ApiResponse(responseCode = "404", description = "Bloqueo no encontrado o vencido")
+    })
+    @PostMapping("/holds/{id}/confirm")
+    public ResponseEntity<Reservation> confirmHold(
+            @Parameter(description = "ID del bloqueo") @PathVariable String id) {
+        return reservationService.confirmHold(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Liberar un bloqueo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bloqueo liberado"),
+            @ApiResponse(responseCode = "404", description = "Bloqueo no encontrado o vencido")
+    })
+    @DeleteMapping("/holds/{id}")
+    public ResponseEntity<Void> releaseHold(
+            @Parameter(description = "ID del bloqueo") @PathVariable String id) {
+        return reservationService.releaseHold(id)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @Operation(summary = "Crear un lote de reservaciones")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote procesado; cada resultado indica si la reservación se creó"),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o demasiado grande"),
+            @ApiResponse(responseCode = "409", description = "Lote rechazado completo en modo ALL_OR_NOTHING")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchReservationResult>> createReservations(
+            @Parameter(description = "Modo del lote: ALL_OR_NOTHING o BEST_EFFORT") @RequestParam(defaultValue = "ALL_OR_NOTHING") BatchMode mode,
+            @Parameter(description = "Reservaciones del lote") @RequestBody List<Reservation> reservations) {
+        List<BatchReservationResult> results;
+        try {
+            results = reservationService.createReservations(reservations, mode);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean rejected = mode == BatchMode.ALL_OR_NOTHING
+                && results.stream().anyMatch(result -> !result.isCreated());
+        return rejected
+                ? ResponseEntity.status(HttpStatus.CONFLICT).body(results)
+                : ResponseEntity.ok(results);
     }
 
     @Operation(summary = "Actualizar una reservación existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Reservación actualizada exitosamente"),
-            @ApiResponse(responseCode = "404", description = "Reservación no encontrada")
+            @ApiResponse(responseCode = "404", description = "Reservación no encontrada"),
+            @ApiResponse(responseCode = "409", description = "La suite ya está reservada en esas fechas o la reservación cambió desde la versión enviada")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Reservation> updateReservation(
@@ -98,6 +211,8 @@ public class ReservationController {
         try {
             Reservation updatedReservation = reservationService.updateReservation(id, reservation);
             return ResponseEntity.ok(updatedReservation);
+        } catch (ReservationConflictException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,155 @@
+package com.hotelreservation.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelreservation.model.Suite;
+import com.hotelreservation.service.CatalogVersion;
+import com.hotelreservation.service.SuiteService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+// Cuerpos JSON ya serializados, planos y en gzip, de la lista completa de suites y de la lista de cada tipo.
+// Cada instantánea lleva la versión del catálogo con la que se construyó y solo se sirve mientras esa
+// versión siga vigente; la primera consulta tras un cambio la reconstruye en segundo plano, con una sola
+// consulta a Mongo para todas las vistas, y mientras tanto esa consulta y las demás se responden por la vía normal.
+@Component
+@Profile("!reactive")
+class SuiteCatalogSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(SuiteCatalogSnapshot.class);
+
+    private final SuiteService suiteService;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    @Autowired
+    SuiteCatalogSnapshot(SuiteService suiteService, CatalogVersion catalogVersion, ObjectMapper objectMapper) {
+        this.suiteService = suiteService;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        refresh();
+    }
+
+    // Respuesta con todas las suites si la instantánea corresponde a la versión etag
+    Optional<ResponseEntity<Object>> all(String etag, WebRequest request) {
+        return current(etag).map(snapshot -> respond(snapshot.all(), request));
+    }
+
+    // Respuesta con las suites de un tipo; un tipo sin suites es una lista vacía, igual que en Mongo
+    Optional<ResponseEntity<Object>> byType(String type, String etag, WebRequest request) {
+        return current(etag).map(snapshot -> respond(snapshot.byType().getOrDefault(type, snapshot.empty()), request));
+    }
+
+    private Optional<Snapshot> current(String etag) {
+        Snapshot snapshot = current.get();
+        if (snapshot != null && snapshot.etag().equals(etag)) {
+            return Optional.of(snapshot);
+        }
+        refresh();
+        return Optional.empty();
+    }
+
+    private void refresh() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.warn("Could not rebuild suite catalog snapshot: {}", e.getMessage());
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    // La versión se lee antes de la consulta, igual que en CatalogResponses
+    private void rebuild() {
+        String etag = catalogVersion.etag();
+        List<Suite> suites = suiteService.getAllSuites();
+        Map<String, List<Suite>> suitesByType = new LinkedHashMap<>();
+        for (Suite suite : suites) {
+            if (suite.getType() != null) {
+                suitesByType.computeIfAbsent(suite.getType(), type -> new ArrayList<>()).add(suite);
+            }
+        }
+        Map<String, Body> byType = new HashMap<>();
+        suitesByType.forEach((type, ofType) -> byType.put(type, body(ofType)));
+        current.set(new Snapshot(etag, body(suites), byType, body(List.of())));
+        logger.debug("Suite catalog snapshot rebuilt for {} suites and {} types", suites.size(), byType.size());
+    }
+
+    private Body body(List<Suite> suites) {
+        try {
+            byte[] plain = objectMapper.writeValueAsBytes(suites);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(plain.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(plain);
+            }
+            return new Body(plain, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ResponseEntity<Object> respond(Body body, WebRequest request) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(body.gzip().length)
+                    .body(body.gzip());
+        }
+        return response.contentLength(body.plain().length).body(body.plain());
+    }
+
+    // gzip aceptado salvo que el cliente lo rechace explícitamente con q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+
+    private record Body(byte[] plain, byte[] gzip) {}
+
+    private record Snapshot(String etag, Body all, Map<String, Body> byType, Body empty) {}
+}
@@ -1,80 +1,160 @@
 package com.hotelreservation.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelreservation.dto.CursorPage;
 import com.hotelreservation.model.Suite;
 import com.hotelreservation.service.SuiteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/suites")
 @CrossOrigin(origins = "*")
 @Tag(name = "Suite", description = "API de gestión de suites")
 public class SuiteController {
 
     private final SuiteService suiteService;
+    private final ObjectMapper objectMapper;
+    private final CatalogResponses catalogResponses;
+    private final SuiteCatalogSnapshot catalogSnapshot;
 
     @Autowired
-    public SuiteController(SuiteService suiteService) {
+    public SuiteController(SuiteService suiteService, ObjectMapper objectMapper,
+                           CatalogResponses catalogResponses, SuiteCatalogSnapshot catalogSnapshot) {
         this.suiteService = suiteService;
+        this.objectMapper = objectMapper;
+        this.catalogResponses = catalogResponses;
+        this.catalogSnapshot = catalogSnapshot;
     }
 
     @Operation(summary = "Obtener todas las suites")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de suites encontrada"),
+            @ApiResponse(responseCode = "200", description = "Lista de suites encontrada",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = Suite.class)))),
+            @ApiResponse(responseCode = "304", description = "El catálogo no cambió desde el ETag enviado"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @GetMapping
-    public ResponseEntity<List<Suite>> getAllSuites() {
-        return ResponseEntity.ok(suiteService.getAllSuites());
+    public ResponseEntity<Object> getAllSuites(WebRequest request) {
+        return catalogResponses.conditional(request, etag -> catalogSnapshot.all(etag, request)
+                .orElseGet(() -> ResponseEntity.ok(suiteService.getAllSuites())));
+    }
+
+    @Operation(summary = "Obtener suites por páginas con cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de suites encontrada"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválido")
+    })
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Suite>> getSuitesPage(
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página") @RequestParam(required = false) Integer size,
+            WebRequest request) {
+        return catalogResponses.conditional(request, () -> {
+            try {
+                return ResponseEntity.ok(suiteService.getSuitesPage(cursor, size));
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
+    }
+
+    @Operation(summary = "Exportar todas las suites como NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo de suites, un documento por línea")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSuites() {
+        return NdjsonResponses.stream(objectMapper, suiteService::streamSuites);
     }
 
     @Operation(summary = "Obtener una suite por ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Suite encontrada"),
+            @ApiResponse(responseCode = "304", description = "El catálogo no cambió desde el ETag enviado"),
             @ApiResponse(responseCode = "404", description = "Suite no encontrada")
     })
     @GetMapping("/{id}")
     public ResponseEntity<Suite> getSuiteById(
-            @Parameter(description = "ID de la suite") @PathVariable String id) {
-        return suiteService.getSuiteById(id)
+            @Parameter(description = "ID de la suite") @PathVariable String id,
+            WebRequest request) {
+        return catalogResponses.conditional(request, () -> suiteService.getSuiteById(id)
                 .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     // Obtener suites por tipo
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Suite>> getSuitesByType(@PathVariable String type) {
-        return ResponseEntity.ok(suiteService.getSuitesByType(type));
+    @ApiResponse(responseCode = "200", description = "Lista de suites del tipo",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = Suite.class))))
+    public ResponseEntity<Object> getSuitesByType(@PathVariable String type, WebRequest request) {
+        return catalogResponses.conditional(request, etag -> catalogSnapshot.byType(type, etag, request)
+                .orElseGet(() -> ResponseEntity.ok(suiteService.getSuitesByType(type))));
     }
 
     // Obtener suites disponibles
     @GetMapping("/available")
-    public ResponseEntity<List<Suite>> getAvailableSuites() {
-        return ResponseEntity.ok(suiteService.getAvailableSuites());
+    public ResponseEntity<List<Suite>> getAvailableSuites(WebRequest request) {
+        return catalogResponses.conditional(request, () -> ResponseEntity.ok(suiteService.getAvailableSuites()));
     }
 
     // Obtener suites por tipo y disponibilidad
     @GetMapping("/type/{type}/available/{available}")
     public ResponseEntity<List<Suite>> getSuitesByTypeAndAvailability(
             @PathVariable String type,
-            @PathVariable boolean available) {
-        return ResponseEntity.ok(suiteService.getSuitesByTypeAndAvailability(type, available));
+            @PathVariable boolean available,
+            WebRequest request) {
+        return catalogResponses.conditional(request,
+                () -> ResponseEntity.ok(suiteService.getSuitesByTypeAndAvailability(type, available)));
     }
 
     // Obtener suites por rango de precio
     @GetMapping("/price-range")
     public ResponseEntity<List<Suite>> getSuitesByPriceRange(
             @RequestParam double minPrice,
-            @RequestParam double maxPrice) {
-        return ResponseEntity.ok(suiteService.getSuitesByPriceRange(minPrice, maxPrice));
+            @RequestParam double maxPrice,
+            WebRequest request) {
+        return catalogResponses.conditional(request,
+                () -> ResponseEntity.ok(suiteService.getSuitesByPriceRange(minPrice, maxPrice)));
+    }
+
+    @Operation(summary = "Buscar suites libres en un rango de fechas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de suites libres encontrada"),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas inválido")
+    })
+    @GetMapping("/availability")
+    public ResponseEntity<List<Suite>> searchAvailableSuites(
+            @Parameter(description = "Fecha inicial") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Fecha final") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Tipo de suite") @RequestParam(required = false) String type,
+            @Parameter(description = "Precio mínimo") @RequestParam(required = false) Double minPrice,
+            @Parameter(description = "Precio máximo") @RequestParam(required = false) Double maxPrice) {
+        try {
+            return ResponseEntity.ok(suiteService.searchAvailableSuites(from, to, type, minPrice, maxPrice));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @Operation(summary = "Crear una nueva suite")
@@ -91,7 +171,8 @@ public class SuiteController {
     @Operation(summary = "Actualizar una suite existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Suite actualizada exitosamente"),
-            @ApiResponse(responseCode = "404", description = "Suite no encontrada")
+            @ApiResponse(responseCode = "404", description = "Suite no encontrada"),
+            @ApiResponse(responseCode = "409", description = "La suite cambió desde la versión enviada")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Suite> updateSuite(
@@ -100,12 +181,34 @@ public class SuiteController {
         try {
             Suite updatedSuite = suiteService.updateSuite(id, suite);
             return ResponseEntity.ok(updatedSuite);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // Actualizar disponibilidad de una suite
+    @Operation(summary = "Verificar si una suite está libre en un rango de fechas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "true si la suite se ofrece y no tiene reservaciones en el rango"),
+            @ApiResponse(responseCode = "400", description = "Rango de fechas inválido"),
+            @ApiResponse(responseCode = "404", description = "Suite no encontrada")
+    })
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Boolean> isAvailable(
+            @Parameter(description = "ID de la suite") @PathVariable String id,
+            @Parameter(description = "Fecha inicial") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Fecha final") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return suiteService.isAvailable(id, from, to)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Actualizar disponibilidad de una suite (si se ofrece para reservar)
     @PatchMapping("/{id}/availability")
     public ResponseEntity<Suite> updateAvailability(
             @PathVariable String id,
@@ -113,6 +216,8 @@ public class SuiteController {
         try {
             Suite updatedSuite = suiteService.updateAvailability(id, available);
             return ResponseEntity.ok(updatedSuite);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
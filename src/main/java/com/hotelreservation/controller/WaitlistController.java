@@ -0,0 +1,72 @@
+package com.hotelreservation.controller;
+
+import com.hotelreservation.model.WaitlistEntry;
+import com.hotelreservation.service.WaitlistService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/waitlist")
+@CrossOrigin(origins = "*")
+@Tag(name = "Waitlist", description = "API de lista de espera para fechas agotadas")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @Autowired
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    @Operation(summary = "Entrar en lista de espera para una suite o un tipo de suite")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitud registrada en espera"),
+            @ApiResponse(responseCode = "400", description = "Fechas, cliente o suite inválidos")
+    })
+    @PostMapping
+    public ResponseEntity<WaitlistEntry> joinWaitlist(
+            @Parameter(description = "Cliente, suiteId o suiteType y fechas deseadas") @RequestBody WaitlistEntry entry) {
+        try {
+            return ResponseEntity.ok(waitlistService.join(entry));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Consultar una solicitud; si fue atendida incluye el bloqueo ofrecido")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitud encontrada"),
+            @ApiResponse(responseCode = "404", description = "Solicitud no encontrada")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<WaitlistEntry> getWaitlistEntry(
+            @Parameter(description = "ID de la solicitud") @PathVariable String id) {
+        return waitlistService.getEntry(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Salir de la lista de espera")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitud retirada"),
+            @ApiResponse(responseCode = "404", description = "Solicitud no encontrada")
+    })
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> leaveWaitlist(
+            @Parameter(description = "ID de la solicitud") @PathVariable String id) {
+        try {
+            waitlistService.leave(id);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.hotelreservation.dto;
+
+// Modo de un lote de reservaciones: todas o ninguna, o registrar las que sean válidas
+public enum BatchMode {
+    ALL_OR_NOTHING,
+    BEST_EFFORT
+}
@@ -0,0 +1,41 @@
+package com.hotelreservation.dto;
+
+import com.hotelreservation.model.Reservation;
+
+// Resultado de un elemento del lote, en la misma posición que en la solicitud.
+// Si la reservación se creó, error es null; si no, reservation es null.
+public class BatchReservationResult {
+    private final int index;
+    private final Reservation reservation;
+    private final String error;
+
+    private BatchReservationResult(int index, Reservation reservation, String error) {
+        this.index = index;
+        this.reservation = reservation;
+        this.error = error;
+    }
+
+    public static BatchReservationResult created(int index, Reservation reservation) {
+        return new BatchReservationResult(index, reservation, null);
+    }
+
+    public static BatchReservationResult rejected(int index, String error) {
+        return new BatchReservationResult(index, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public boolean isCreated() {
+        return error == null;
+    }
+
+    public Reservation getReservation() {
+        return reservation;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
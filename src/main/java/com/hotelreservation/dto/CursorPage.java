@@ -0,0 +1,22 @@
+package com.hotelreservation.dto;
+
+import java.util.List;
+
+// Página de resultados con el cursor opaco para pedir la siguiente (null si no hay más)
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
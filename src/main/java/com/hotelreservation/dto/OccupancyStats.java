@@ -0,0 +1,39 @@
+package com.hotelreservation.dto;
+
+import java.time.LocalDate;
+
+// Ocupación de un tipo de suite en un periodo: noches vendidas sobre noches disponibles.
+// Las noches disponibles se calculan con el número actual de suites del tipo.
+public class OccupancyStats {
+    private final LocalDate period;
+    private final String suiteType;
+    private final long nightsSold;
+    private final long availableNights;
+
+    public OccupancyStats(LocalDate period, String suiteType, long nightsSold, long availableNights) {
+        this.period = period;
+        this.suiteType = suiteType;
+        this.nightsSold = nightsSold;
+        this.availableNights = availableNights;
+    }
+
+    public LocalDate getPeriod() {
+        return period;
+    }
+
+    public String getSuiteType() {
+        return suiteType;
+    }
+
+    public long getNightsSold() {
+        return nightsSold;
+    }
+
+    public long getAvailableNights() {
+        return availableNights;
+    }
+
+    public double getOccupancyRate() {
+        return availableNights == 0 ? 0 : (double) nightsSold / availableNights;
+    }
+}
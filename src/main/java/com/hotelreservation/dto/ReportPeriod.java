@@ -0,0 +1,30 @@
+package com.hotelreservation.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Periodo de agrupación de los reportes; las semanas inician en lunes
+public enum ReportPeriod {
+    DAY,
+    WEEK,
+    MONTH;
+
+    // Primer día del periodo que contiene la fecha
+    public LocalDate start(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    // Primer día del periodo siguiente
+    public LocalDate next(LocalDate start) {
+        return switch (this) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+}
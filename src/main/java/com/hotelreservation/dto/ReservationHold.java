@@ -0,0 +1,49 @@
+package com.hotelreservation.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Bloqueo temporal de una suite y fechas mientras el cliente paga; al confirmarlo se convierte en una
+// reservación con el mismo ID
+public class ReservationHold {
+    private final String id;
+    private final String customerId;
+    private final String suiteId;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final Instant expiresAt;
+
+    public ReservationHold(String id, String customerId, String suiteId, LocalDate checkInDate,
+                           LocalDate checkOutDate, Instant expiresAt) {
+        this.id = id;
+        this.customerId = customerId;
+        this.suiteId = suiteId;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public String getSuiteId() {
+        return suiteId;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
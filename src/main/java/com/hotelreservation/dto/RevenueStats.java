@@ -0,0 +1,39 @@
+package com.hotelreservation.dto;
+
+import java.time.LocalDate;
+
+// Ingresos de un tipo de suite en un periodo: noches vendidas por el precio guardado en cada reservación
+public class RevenueStats {
+    private final LocalDate period;
+    private final String suiteType;
+    private final long nightsSold;
+    private final double revenue;
+
+    public RevenueStats(LocalDate period, String suiteType, long nightsSold, double revenue) {
+        this.period = period;
+        this.suiteType = suiteType;
+        this.nightsSold = nightsSold;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getPeriod() {
+        return period;
+    }
+
+    public String getSuiteType() {
+        return suiteType;
+    }
+
+    public long getNightsSold() {
+        return nightsSold;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    // Tarifa promedio por noche vendida
+    public double getAverageDailyRate() {
+        return nightsSold == 0 ? 0 : revenue / nightsSold;
+    }
+}
@@ -0,0 +1,51 @@
+package com.hotelreservation.dto;
+
+import java.time.LocalDate;
+
+// Precio total de una estancia en una suite libre: la suma de la tarifa de cada noche
+public class StayQuote {
+    private final String suiteId;
+    private final String suiteType;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final int nights;
+    private final double total;
+
+    public StayQuote(String suiteId, String suiteType, LocalDate checkInDate, LocalDate checkOutDate,
+                     int nights, double total) {
+        this.suiteId = suiteId;
+        this.suiteType = suiteType;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.nights = nights;
+        this.total = total;
+    }
+
+    public String getSuiteId() {
+        return suiteId;
+    }
+
+    public String getSuiteType() {
+        return suiteType;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public int getNights() {
+        return nights;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public double getAverageNightly() {
+        return nights == 0 ? 0 : total / nights;
+    }
+}
@@ -0,0 +1,281 @@
+package com.hotelreservation.journal;
+
+import com.hotelreservation.model.Reservation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Diario de solo anexado con cada creación, cambio de fechas y cancelación de reservaciones, para auditoría.
+// Los registros tienen formato fijo (JournalEvent) y se copian a un segmento mapeado en memoria: anexar es
+// escribir 128 bytes bajo un candado, sin ida a Mongo ni llamada al sistema. Un hilo aparte hace force() del
+// segmento cada flush-interval, o en cuanto alguien lo espera, y un solo force() cubre todo lo anexado
+// desde el anterior (group commit). Con sync=false la reservación no espera el force(): si el proceso muere
+// los registros siguen en la caché de páginas del sistema y solo una caída del equipo pierde el último
+// intervalo; con sync=true cada escritura espera a que su registro esté en disco.
+// Si un force() falla, el hilo lo registra, despierta a las escrituras que esperaban esos registros (que se
+// dan por no confirmados) y reintenta en el siguiente intervalo. Si el hilo termina, nadie se queda esperando.
+// Un segmento lleno se fuerza y se abre el siguiente, nombrado con su primera secuencia. Al arrancar se
+// busca el final del último segmento recorriendo sus registros hasta el primero inválido.
+// Cada instancia escribe su propio diario con sus propias escrituras.
+@Component
+public class BookingJournal {
+    private static final Logger logger = LoggerFactory.getLogger(BookingJournal.class);
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final Duration flushInterval;
+    private final boolean sync;
+    private final Counter appended;
+    private final Counter flushFailures;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushWanted = lock.newCondition();
+    private final Condition flushDone = lock.newCondition();
+    private final ExecutorService flusher = Executors.newVirtualThreadPerTaskExecutor();
+    private MappedByteBuffer segment;
+    private int position;
+    private long nextSequence;
+    private long lastTimestamp;
+    private long flushedSequence;
+    // Última secuencia de un force() fallido; las escrituras síncronas hasta ella dejan de esperar
+    private long failedSequence;
+    // Una escritura síncrona espera su force(); el hilo de flush no espera el intervalo completo
+    private boolean flushRequested;
+    private boolean flushing;
+    private volatile boolean running;
+
+    @Autowired
+    public BookingJournal(
+            MeterRegistry meterRegistry,
+            @Value("${hotel.journal.enabled:true}") boolean enabled,
+            @Value("${hotel.journal.dir:journal}") Path directory,
+            @Value("${hotel.journal.segment-size:67108864}") int segmentSize,
+            @Value("${hotel.journal.flush-interval:10ms}") Duration flushInterval,
+            @Value("${hotel.journal.sync:false}") boolean sync) {
+        if (segmentSize < JournalEvent.SIZE) {
+            throw new IllegalArgumentException("hotel.journal.segment-size must hold at least one record");
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = segmentSize - segmentSize % JournalEvent.SIZE;
+        this.flushInterval = flushInterval;
+        this.sync = sync;
+        this.appended = meterRegistry.counter("hotel.journal.events");
+        this.flushFailures = meterRegistry.counter("hotel.journal.flush.failures");
+    }
+
+    // Abrir el último segmento y continuar donde terminó
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = JournalReader.segments(directory);
+            if (segments.isEmpty()) {
+                nextSequence = 1;
+                roll();
+            } else {
+                Path last = segments.get(segments.size() - 1);
+                segment = map(last);
+                nextSequence = JournalReader.firstSequence(last);
+                position = 0;
+                JournalEvent event;
+                while ((event = JournalEvent.read(segment, position)) != null) {
+                    nextSequence = event.sequence() + 1;
+                    lastTimestamp = event.timestamp().toEpochMilli();
+                    position += JournalEvent.SIZE;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open booking journal in " + directory, e);
+        }
+        flushedSequence = nextSequence - 1;
+        running = true;
+        flushing = true;
+        flusher.execute(this::flushLoop);
+        logger.info("Booking journal open in {} at sequence {}", directory.toAbsolutePath(), nextSequence);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!running) {
+            return;
+        }
+        lock.lock();
+        try {
+            running = false;
+            flushWanted.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            segment.force();
+        } catch (RuntimeException e) {
+            logger.error("Could not flush booking journal on close: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void created(Reservation reservation) {
+        append(JournalEventType.CREATED, reservation);
+    }
+
+    public void updated(Reservation reservation) {
+        append(JournalEventType.UPDATED, reservation);
+    }
+
+    public void cancelled(Reservation reservation) {
+        append(JournalEventType.CANCELLED, reservation);
+    }
+
+    // Anexar un registro. Un error de disco se registra y no hace fallar la reservación, que ya está en Mongo.
+    private void append(JournalEventType type, Reservation reservation) {
+        if (!running) {
+            return;
+        }
+        long sequence;
+        lock.lock();
+        try {
+            if (position + JournalEvent.SIZE > segment.capacity()) {
+                segment.force();
+                roll();
+            }
+            sequence = nextSequence++;
+            // Los instantes no retroceden aunque el reloj lo haga, así el lector puede cortar por tiempo
+            lastTimestamp = Math.max(lastTimestamp, System.currentTimeMillis());
+            JournalEvent.of(sequence, lastTimestamp, type, reservation).write(segment, position);
+            position += JournalEvent.SIZE;
+            if (sync) {
+                while (running && flushing && flushedSequence < sequence && failedSequence < sequence) {
+                    flushRequested = true;
+                    flushWanted.signal();
+                    flushDone.await();
+                }
+                if (flushedSequence < sequence) {
+                    logger.error("Journal record {} ({} of reservation {}) is not confirmed on disk",
+                            sequence, type, reservation.getId());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not journal {} of reservation {}: {}", type, reservation.getId(), e.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            lock.unlock();
+        }
+        appended.increment();
+    }
+
+    // Forzar a disco lo anexado; espera flush-interval salvo que una escritura síncrona lo pida antes
+    private void flushLoop() {
+        try {
+            flushUntilClosed();
+        } finally {
+            lock.lock();
+            try {
+                flushing = false;
+                flushDone.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void flushUntilClosed() {
+        while (running) {
+            long target;
+            MappedByteBuffer current;
+            lock.lock();
+            try {
+                // Un force() por intervalo aunque las escrituras no paren; solo una escritura síncrona lo adelanta
+                long remaining = flushInterval.toNanos();
+                while (running && !flushRequested && remaining > 0) {
+                    remaining = flushWanted.awaitNanos(remaining);
+                }
+                flushRequested = false;
+                target = nextSequence - 1;
+                if (target == flushedSequence) {
+                    continue;
+                }
+                current = segment;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            // Fuera del candado: las escrituras siguen mientras el sistema baja las páginas a disco
+            boolean flushed;
+            try {
+                current.force();
+                flushed = true;
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                logger.error("Could not flush booking journal through sequence {}: {}", target, e.getMessage());
+                flushed = false;
+            }
+            lock.lock();
+            try {
+                if (flushed) {
+                    flushedSequence = Math.max(flushedSequence, target);
+                } else {
+                    failedSequence = Math.max(failedSequence, target);
+                }
+                // Si falló, el reintento espera el intervalo siguiente, así que no gira sobre un disco que sigue fallando
+                flushDone.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Abrir un segmento nuevo que empieza en la siguiente secuencia; se llama con el candado tomado
+    private void roll() throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", nextSequence, SEGMENT_SUFFIX));
+        segment = map(path);
+        position = 0;
+        logger.info("Booking journal segment {} started", path.getFileName());
+    }
+
+    private MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = Math.max(channel.size(), segmentSize);
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.hotelreservation.journal;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Herramienta de línea de comandos para el diario de reservaciones, sin levantar Spring ni conectarse a Mongo.
+//   inspect <dir> [desde] [hasta]  imprime un registro por línea
+//   replay <dir> [hasta]           reconstruye las reservaciones vigentes en ese instante
+// Los instantes van en ISO-8601, por ejemplo 2025-01-31T18:00:00Z.
+public class JournalCli {
+
+    public static void main(String[] args) {
+        if (args.length < 2 || !(args[0].equals("inspect") || args[0].equals("replay"))) {
+            System.err.println("Usage: inspect <dir> [from] [to] | replay <dir> [to]");
+            System.exit(2);
+        }
+        JournalReader reader = new JournalReader(Path.of(args[1]));
+        if (args[0].equals("inspect")) {
+            Instant from = args.length > 2 ? Instant.parse(args[2]) : Instant.MIN;
+            Instant to = args.length > 3 ? Instant.parse(args[3]) : Instant.MAX;
+            reader.read(from, to, event -> System.out.println(format(event)));
+            return;
+        }
+        Instant to = args.length > 2 ? Instant.parse(args[2]) : Instant.MAX;
+        Map<String, JournalEvent> reservations = new LinkedHashMap<>();
+        reader.read(Instant.MIN, to, event -> {
+            if (event.type() == JournalEventType.CANCELLED) {
+                reservations.remove(event.reservationId());
+            } else {
+                reservations.put(event.reservationId(), event);
+            }
+        });
+        reservations.values().forEach(event -> System.out.println(format(event)));
+        System.err.println(reservations.size() + " reservations as of " + (args.length > 2 ? to : "end of journal"));
+    }
+
+    private static String format(JournalEvent event) {
+        return String.join("\t",
+                String.valueOf(event.sequence()),
+                event.timestamp().toString(),
+                event.type().name(),
+                event.reservationId(),
+                event.customerId(),
+                event.suiteId(),
+                String.valueOf(event.checkInDate()),
+                String.valueOf(event.checkOutDate()),
+                String.valueOf(event.suitePrice()));
+    }
+}
@@ -0,0 +1,107 @@
+package com.hotelreservation.journal;
+
+import com.hotelreservation.model.Reservation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+// Un cambio de una reservación tal como queda en el diario.
+// Cada registro ocupa SIZE bytes en un formato fijo, sin serialización de objetos:
+//   0 secuencia (long), 8 instante en milisegundos (long), 16 tipo (byte), 17-19 reservados,
+//   20 reservación, 44 cliente, 68 suite (IDs en ASCII de hasta 24 bytes, rellenos con ceros),
+//   92 entrada y 96 salida (días desde la época, int), 100 precio por noche (double),
+//   108-123 reservados, 124 CRC32C de los bytes 0 a 123.
+// Un registro con secuencia 0 o CRC inválido marca el final de lo escrito: el resto del segmento está
+// en ceros o quedó a medio escribir cuando se detuvo el proceso.
+public record JournalEvent(
+        long sequence,
+        Instant timestamp,
+        JournalEventType type,
+        String reservationId,
+        String customerId,
+        String suiteId,
+        LocalDate checkInDate,
+        LocalDate checkOutDate,
+        double suitePrice) {
+
+    public static final int SIZE = 128;
+    private static final int ID_SIZE = 24;
+    private static final int CRC_OFFSET = SIZE - Integer.BYTES;
+
+    static JournalEvent of(long sequence, long timestampMillis, JournalEventType type, Reservation reservation) {
+        return new JournalEvent(sequence, Instant.ofEpochMilli(timestampMillis), type, reservation.getId(),
+                reservation.getCustomerId(), reservation.getSuiteId(), reservation.getCheckInDate(),
+                reservation.getCheckOutDate(), reservation.getSuitePrice());
+    }
+
+    // Escribir el registro en la posición dada con operaciones absolutas, sin mover la posición del buffer
+    void write(ByteBuffer buffer, int offset) {
+        buffer.putLong(offset, sequence);
+        buffer.putLong(offset + 8, timestamp.toEpochMilli());
+        buffer.put(offset + 16, type.getCode());
+        putId(buffer, offset + 20, reservationId);
+        putId(buffer, offset + 44, customerId);
+        putId(buffer, offset + 68, suiteId);
+        buffer.putInt(offset + 92, checkInDate == null ? Integer.MIN_VALUE : (int) checkInDate.toEpochDay());
+        buffer.putInt(offset + 96, checkOutDate == null ? Integer.MIN_VALUE : (int) checkOutDate.toEpochDay());
+        buffer.putDouble(offset + 100, suitePrice);
+        buffer.putInt(offset + CRC_OFFSET, crc(buffer, offset));
+    }
+
+    // Leer el registro de la posición dada; null si ahí no hay un registro completo
+    static JournalEvent read(ByteBuffer buffer, int offset) {
+        if (offset + SIZE > buffer.limit()) {
+            return null;
+        }
+        long sequence = buffer.getLong(offset);
+        if (sequence == 0 || buffer.getInt(offset + CRC_OFFSET) != crc(buffer, offset)) {
+            return null;
+        }
+        JournalEventType type = JournalEventType.of(buffer.get(offset + 16));
+        if (type == null) {
+            return null;
+        }
+        return new JournalEvent(
+                sequence,
+                Instant.ofEpochMilli(buffer.getLong(offset + 8)),
+                type,
+                getId(buffer, offset + 20),
+                getId(buffer, offset + 44),
+                getId(buffer, offset + 68),
+                getDate(buffer, offset + 92),
+                getDate(buffer, offset + 96),
+                buffer.getDouble(offset + 100));
+    }
+
+    private static int crc(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    // Los IDs de Mongo son ObjectId de 24 caracteres hexadecimales; uno más largo se guarda truncado
+    private static void putId(ByteBuffer buffer, int offset, String id) {
+        byte[] bytes = id == null ? new byte[0] : id.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < ID_SIZE; i++) {
+            buffer.put(offset + i, i < bytes.length ? bytes[i] : 0);
+        }
+    }
+
+    private static String getId(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[ID_SIZE];
+        int length = 0;
+        while (length < ID_SIZE && buffer.get(offset + length) != 0) {
+            bytes[length] = buffer.get(offset + length);
+            length++;
+        }
+        return length == 0 ? null : new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private static LocalDate getDate(ByteBuffer buffer, int offset) {
+        int day = buffer.getInt(offset);
+        return day == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(day);
+    }
+}
@@ -0,0 +1,27 @@
+package com.hotelreservation.journal;
+
+// Tipo de cambio registrado en el diario; el código es el byte que se guarda en disco y no debe cambiar
+public enum JournalEventType {
+    CREATED(1),
+    UPDATED(2),
+    CANCELLED(3);
+
+    private final byte code;
+
+    JournalEventType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static JournalEventType of(byte code) {
+        for (JournalEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,84 @@
+package com.hotelreservation.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Lectura del diario de reservaciones por rango de tiempo. Los instantes crecen con la secuencia, así que
+// con el primer registro de cada segmento se descartan los segmentos que quedan fuera del rango sin leerlos.
+// Puede leer el diario mientras la aplicación sigue escribiendo: el último registro a medio escribir no
+// pasa la verificación del CRC y ahí termina la lectura.
+public class JournalReader {
+    private final Path directory;
+
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    // Entregar en orden los registros con instante entre from y to, ambos inclusivos
+    public void read(Instant from, Instant to, Consumer<JournalEvent> consumer) {
+        try {
+            List<Path> segments = segments(directory);
+            for (int i = 0; i < segments.size(); i++) {
+                MappedByteBuffer segment = map(segments.get(i));
+                JournalEvent first = JournalEvent.read(segment, 0);
+                if (first == null || first.timestamp().isAfter(to)) {
+                    return;
+                }
+                // El segmento termina antes de from si el siguiente ya empieza antes de from
+                if (i + 1 < segments.size()) {
+                    JournalEvent next = JournalEvent.read(map(segments.get(i + 1)), 0);
+                    if (next != null && next.timestamp().isBefore(from)) {
+                        continue;
+                    }
+                }
+                for (int offset = 0; ; offset += JournalEvent.SIZE) {
+                    JournalEvent event = JournalEvent.read(segment, offset);
+                    if (event == null) {
+                        break;
+                    }
+                    if (event.timestamp().isAfter(to)) {
+                        return;
+                    }
+                    if (!event.timestamp().isBefore(from)) {
+                        consumer.accept(event);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read booking journal in " + directory, e);
+        }
+    }
+
+    // Segmentos del directorio en orden de secuencia; el nombre de relleno fijo hace que el orden
+    // alfabético sea el numérico
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(BookingJournal.SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - BookingJournal.SEGMENT_SUFFIX.length()));
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.hotelreservation.migration;
+
+import com.hotelreservation.model.Customer;
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.model.Suite;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Asignar versión 0 a los documentos guardados antes de que los modelos tuvieran @Version.
+// Sin este campo Spring Data los toma por nuevos y save() intentaría insertarlos otra vez.
+@Component
+public class DocumentVersionMigration {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentVersionMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    @Autowired
+    public DocumentVersionMigration(
+            MongoTemplate mongoTemplate,
+            @Value("${hotel.migration.document-versions.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        Query unversioned = Query.query(Criteria.where("version").exists(false));
+        for (Class<?> type : List.of(Suite.class, Customer.class, Reservation.class)) {
+            long migrated = mongoTemplate.updateMulti(unversioned, new Update().set("version", 0L), type)
+                    .getModifiedCount();
+            if (migrated > 0) {
+                logger.info("Set initial version on {} {} documents", migrated, type.getSimpleName());
+            }
+        }
+    }
+}
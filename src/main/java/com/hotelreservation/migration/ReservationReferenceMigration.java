@@ -0,0 +1,147 @@
+package com.hotelreservation.migration;
+
+import com.hotelreservation.model.Customer;
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.model.Suite;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCursor;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Migración de reservaciones guardadas con @DBRef al esquema con IDs y copia de datos.
+// Recorre solo los documentos que aún tienen los campos "customer" o "suite" y los convierte por lotes:
+// una consulta $in por colección referenciada y una escritura bulk por lote.
+@Component
+public class ReservationReferenceMigration {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationReferenceMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    @Autowired
+    public ReservationReferenceMigration(
+            MongoTemplate mongoTemplate,
+            @Value("${hotel.migration.reservation-references.enabled:true}") boolean enabled,
+            @Value("${hotel.migration.reservation-references.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    // Ejecutar la migración antes de que se cargue el calendario de reservaciones
+    @PostConstruct
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        Query legacy = new Query(new Criteria().orOperator(
+                Criteria.where("customer").exists(true),
+                Criteria.where("suite").exists(true)));
+        String collection = mongoTemplate.getCollectionName(Reservation.class);
+
+        int migrated = 0;
+        List<Document> batch = new ArrayList<>(batchSize);
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(collection)
+                .find(legacy.getQueryObject())
+                .batchSize(batchSize)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == batchSize) {
+                    migrated += migrateBatch(collection, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            migrated += migrateBatch(collection, batch);
+        }
+        if (migrated > 0) {
+            logger.info("Migrated {} reservations from DBRef to embedded references", migrated);
+        }
+    }
+
+    private int migrateBatch(String collection, List<Document> batch) {
+        Set<Object> customerIds = new HashSet<>();
+        Set<Object> suiteIds = new HashSet<>();
+        for (Document reservation : batch) {
+            addRefId(reservation.get("customer"), customerIds);
+            addRefId(reservation.get("suite"), suiteIds);
+        }
+        Map<Object, Document> customers = findAllById(Customer.class, customerIds);
+        Map<Object, Document> suites = findAllById(Suite.class, suiteIds);
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+        for (Document reservation : batch) {
+            Update update = new Update().unset("customer").unset("suite");
+            Object customerId = refId(reservation.get("customer"));
+            if (customerId != null) {
+                update.set("customerId", idToString(customerId));
+                Document customer = customers.get(customerId);
+                if (customer != null) {
+                    update.set("customerName", customer.getString("name"));
+                }
+            }
+            Object suiteId = refId(reservation.get("suite"));
+            if (suiteId != null) {
+                update.set("suiteId", idToString(suiteId));
+                Document suite = suites.get(suiteId);
+                if (suite != null) {
+                    update.set("suiteType", suite.getString("type"));
+                    update.set("suitePrice", suite.get("price"));
+                }
+            }
+            bulk.updateOne(Query.query(Criteria.where("_id").is(reservation.get("_id"))), update);
+        }
+        return bulk.execute().getModifiedCount();
+    }
+
+    private Map<Object, Document> findAllById(Class<?> type, Set<Object> ids) {
+        Map<Object, Document> byId = new HashMap<>();
+        if (ids.isEmpty()) {
+            return byId;
+        }
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(type))
+                .find(new Document("_id", new Document("$in", new ArrayList<>(ids))))
+                .forEach(document -> byId.put(document.get("_id"), document));
+        return byId;
+    }
+
+    private static void addRefId(Object reference, Set<Object> ids) {
+        Object id = refId(reference);
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    // Según el codec, la referencia llega como DBRef o como documento {$ref, $id}
+    private static Object refId(Object reference) {
+        if (reference instanceof DBRef dbRef) {
+            return dbRef.getId();
+        }
+        return reference instanceof Document document ? document.get("$id") : null;
+    }
+
+    private static String idToString(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+}
@@ -0,0 +1,81 @@
+package com.hotelreservation.migration;
+
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.model.Suite;
+import com.mongodb.client.MongoCollection;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Migración del campo "available" de las suites al campo "inService".
+// El código de reservas anterior ponía available=false al reservar, así que en los datos viejos el campo
+// mezcla ocupación y fuera de servicio. Una suite con available=false y reservaciones quedó así por una
+// reserva y pasa a inService=true; sin reservaciones la marcó un administrador y sigue fuera de servicio.
+// Solo toca los documentos que aún no tienen "inService", así que corre una sola vez por suite.
+@Component
+@DependsOn("reservationReferenceMigration")
+public class SuiteInServiceMigration {
+    private static final Logger logger = LoggerFactory.getLogger(SuiteInServiceMigration.class);
+    // Índices declarados sobre el campo anterior
+    private static final List<String> LEGACY_INDEXES = List.of("type_available", "available_price");
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    @Autowired
+    public SuiteInServiceMigration(
+            MongoTemplate mongoTemplate,
+            @Value("${hotel.migration.suite-in-service.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    // Ejecutar la migración antes de que se cargue el índice de disponibilidad
+    @PostConstruct
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        MongoCollection<Document> suites = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Suite.class));
+        dropLegacyIndexes(suites);
+        Document legacy = new Document("inService", new Document("$exists", false));
+        if (suites.countDocuments(legacy) == 0) {
+            return;
+        }
+        List<Object> bookedSuiteIds = new ArrayList<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Reservation.class))
+                .distinct("suiteId", String.class)
+                .forEach(id -> bookedSuiteIds.add(ObjectId.isValid(id) ? new ObjectId(id) : id));
+
+        long inService = suites.updateMany(
+                new Document(legacy).append("$or", List.of(
+                        new Document("available", new Document("$ne", false)),
+                        new Document("_id", new Document("$in", bookedSuiteIds)))),
+                new Document("$set", new Document("inService", true)).append("$unset", new Document("available", "")))
+                .getModifiedCount();
+        long outOfService = suites.updateMany(legacy,
+                new Document("$set", new Document("inService", false)).append("$unset", new Document("available", "")))
+                .getModifiedCount();
+        logger.info("Migrated suite availability flag: {} in service, {} out of service", inService, outOfService);
+    }
+
+    private void dropLegacyIndexes(MongoCollection<Document> suites) {
+        for (Document index : suites.listIndexes()) {
+            String name = index.getString("name");
+            if (LEGACY_INDEXES.contains(name)) {
+                suites.dropIndex(name);
+                logger.info("Dropped legacy suite index {}", name);
+            }
+        }
+    }
+}
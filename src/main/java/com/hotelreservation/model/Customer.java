@@ -1,13 +1,18 @@
 package com.hotelreservation.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document
 public class Customer {
     @Id
     private String id;
+    @Version
+    private Long version;
     private String name;
+    @Indexed(unique = true)
     private String email;
     private String phoneNumber;
 
@@ -28,6 +33,14 @@ public class Customer {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,80 @@
+package com.hotelreservation.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+// Contador materializado de noches vendidas e ingresos de un tipo de suite en un día.
+// El ID es "fecha|tipo" para que los incrementos y la reconstrucción apunten al mismo documento.
+@Document
+public class DailyOccupancy {
+    @Id
+    private String id;
+
+    @Indexed
+    private LocalDate day;
+    private String suiteType;
+    private long nights;
+    private double revenue;
+
+    // Momento de la reconstrucción que escribió el contador, o de su creación si se creó con un incremento
+    private Date rebuiltAt;
+
+    public DailyOccupancy() {}
+
+    public static String idOf(LocalDate day, String suiteType) {
+        return day + "|" + suiteType;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public String getSuiteType() {
+        return suiteType;
+    }
+
+    public void setSuiteType(String suiteType) {
+        this.suiteType = suiteType;
+    }
+
+    public long getNights() {
+        return nights;
+    }
+
+    public void setNights(long nights) {
+        this.nights = nights;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public Date getRebuiltAt() {
+        return rebuiltAt;
+    }
+
+    public void setRebuiltAt(Date rebuiltAt) {
+        this.rebuiltAt = rebuiltAt;
+    }
+}
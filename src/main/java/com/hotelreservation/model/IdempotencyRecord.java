@@ -0,0 +1,90 @@
+package com.hotelreservation.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// Respuesta guardada para una llave de idempotencia. Mientras la primera solicitud se procesa el registro
+// existe sin respuesta; al terminar guarda el estado, el tipo de contenido y el cuerpo para repetirlos.
+// Mongo elimina los registros cuando vence hotel.idempotency.ttl desde su creación.
+@Document
+public class IdempotencyRecord {
+    @Id
+    private String id;
+
+    // Huella del método, la ruta y el cuerpo de la solicitud original
+    private String fingerprint;
+    private boolean completed;
+    private int status;
+    private String contentType;
+    private byte[] body;
+
+    // MongoIdempotencyStore crea el índice TTL con hotel.idempotency.ttl
+    private Date createdAt;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String id, String fingerprint) {
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.createdAt = new Date();
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,83 @@
+package com.hotelreservation.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+// Día de una suite reclamado por una reservación.
+// El ID es "suite|fecha", así que el índice único de _id impide que dos reservaciones guarden el mismo día
+// aunque cada una haya pasado la verificación del calendario en memoria de una instancia distinta.
+@Document
+public class NightClaim {
+    @Id
+    private String id;
+
+    private String suiteId;
+    private LocalDate day;
+
+    @Indexed
+    private String reservationId;
+    private Date claimedAt;
+
+    // Mongo borra el reclamo cuando el día ya pasó
+    @Indexed(expireAfterSeconds = 0)
+    private Date expiresAt;
+
+    public NightClaim() {}
+
+    public static String idOf(String suiteId, LocalDate day) {
+        return suiteId + "|" + day;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getSuiteId() {
+        return suiteId;
+    }
+
+    public void setSuiteId(String suiteId) {
+        this.suiteId = suiteId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public Date getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(Date claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,82 @@
+package com.hotelreservation.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+
+// Tarifa por noche para un rango de noches (ambos extremos inclusivos) de una suite o de un tipo de suite.
+// Un cambio de precios del equipo de tarifas es un documento por rango, sin importar cuántas suites cubre;
+// cuando dos rangos se traslapan gana el más reciente. La tarifa de una suite tiene prioridad sobre la de su
+// tipo, y las noches sin tarifa usan Suite.price.
+@Document
+public class RateRange {
+    @Id
+    private String id;
+    private String suiteId;
+    private String type;
+    private LocalDate firstNight;
+    @Indexed
+    private LocalDate lastNight;
+    private double price;
+
+    public RateRange() {}
+
+    public RateRange(String suiteId, String type, LocalDate firstNight, LocalDate lastNight, double price) {
+        this.suiteId = suiteId;
+        this.type = type;
+        this.firstNight = firstNight;
+        this.lastNight = lastNight;
+        this.price = price;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getSuiteId() {
+        return suiteId;
+    }
+
+    public void setSuiteId(String suiteId) {
+        this.suiteId = suiteId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public LocalDate getFirstNight() {
+        return firstNight;
+    }
+
+    public void setFirstNight(LocalDate firstNight) {
+        this.firstNight = firstNight;
+    }
+
+    public LocalDate getLastNight() {
+        return lastNight;
+    }
+
+    public void setLastNight(LocalDate lastNight) {
+        this.lastNight = lastNight;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+}
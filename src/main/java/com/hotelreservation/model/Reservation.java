@@ -1,30 +1,51 @@
 package com.hotelreservation.model;
 
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 
+// Índices para las búsquedas por suite y fechas, por cliente, por fecha de salida y para la paginación
+// ordenada por fecha de entrada
 @Document
+@CompoundIndex(name = "suite_dates", def = "{'suiteId': 1, 'checkInDate': 1, 'checkOutDate': 1}")
+@CompoundIndex(name = "checkInDate_id", def = "{'checkInDate': 1, '_id': 1}")
 public class Reservation {
     @Id
     private String id;
+    // Control de concurrencia optimista; se incrementa en cada escritura
+    @Version
+    private Long version;
 
-    @DBRef
+    // Referencias por ID con una copia mínima de los datos que se muestran en los listados
+    @Indexed
+    private String customerId;
+    private String customerName;
+
+    private String suiteId;
+    private String suiteType;
+    private double suitePrice;
+
+    // Entidades completas, resueltas por el servicio cuando se necesitan; no se persisten
+    @Transient
     private Customer customer;
 
-    @DBRef
+    @Transient
     private Suite suite;
 
     private LocalDate checkInDate;
+    @Indexed
     private LocalDate checkOutDate;
 
     public Reservation() {}
 
     public Reservation(Customer customer, Suite suite, LocalDate checkInDate, LocalDate checkOutDate) {
-        this.customer = customer;
-        this.suite = suite;
+        setCustomer(customer);
+        setSuite(suite);
         this.checkInDate = checkInDate;
         this.checkOutDate = checkOutDate;
     }
@@ -38,12 +59,63 @@ public class Reservation {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public String getSuiteId() {
+        return suiteId;
+    }
+
+    public void setSuiteId(String suiteId) {
+        this.suiteId = suiteId;
+    }
+
+    public String getSuiteType() {
+        return suiteType;
+    }
+
+    public void setSuiteType(String suiteType) {
+        this.suiteType = suiteType;
+    }
+
+    public double getSuitePrice() {
+        return suitePrice;
+    }
+
+    public void setSuitePrice(double suitePrice) {
+        this.suitePrice = suitePrice;
+    }
+
     public Customer getCustomer() {
         return customer;
     }
 
     public void setCustomer(Customer customer) {
         this.customer = customer;
+        if (customer != null && customer.getId() != null) {
+            this.customerId = customer.getId();
+        }
     }
 
     public Suite getSuite() {
@@ -52,6 +124,9 @@ public class Reservation {
 
     public void setSuite(Suite suite) {
         this.suite = suite;
+        if (suite != null && suite.getId() != null) {
+            this.suiteId = suite.getId();
+        }
     }
 
     public LocalDate getCheckInDate() {
@@ -69,4 +144,4 @@ public class Reservation {
     public void setCheckOutDate(LocalDate checkOutDate) {
         this.checkOutDate = checkOutDate;
     }
-}
\ No newline at end of file
+}
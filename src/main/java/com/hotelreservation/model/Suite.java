@@ -1,14 +1,29 @@
 package com.hotelreservation.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
+// Índices para las búsquedas por tipo, por disponibilidad y por rango de precio
 @Document
+@CompoundIndex(name = "type_in_service", def = "{'type': 1, 'inService': 1}")
+@CompoundIndex(name = "in_service_price", def = "{'inService': 1, 'price': 1}")
 public class Suite {
     @Id
     private String id;
+    // Versión del documento para las actualizaciones condicionadas de VersionedUpdates
+    @Version
+    private Long version;
     private String type;
+    @Indexed
     private double price;
+    // La suite se ofrece para reservar (false si está fuera de servicio); la ocupación por fechas
+    // no se guarda aquí, sale del calendario de reservaciones. En Mongo se llama "inService" para no
+    // confundirlo con el "available" que escribía el código de reservas anterior (SuiteInServiceMigration).
+    @Field("inService")
     private boolean available;
 
     public Suite() {}
@@ -28,6 +43,14 @@ public class Suite {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getType() {
         return type;
     }
@@ -0,0 +1,127 @@
+package com.hotelreservation.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Fechas que un cliente quiere en una suite concreta o en cualquier suite de un tipo. La prioridad es el
+// orden de llegada (el ID). Cuando se liberan noches que la cubren se le ofrece un bloqueo temporal, que
+// confirma como cualquier otro bloqueo. Mongo borra la solicitud al llegar su fecha de salida.
+@Document
+@CompoundIndex(name = "status_id_checkInDate", def = "{'status': 1, '_id': 1, 'checkInDate': 1}")
+public class WaitlistEntry {
+    @Id
+    private String id;
+    @Version
+    private Long version;
+
+    private String customerId;
+    private String suiteId;
+    private String suiteType;
+    private LocalDate checkInDate;
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDate checkOutDate;
+
+    private WaitlistStatus status;
+    // Bloqueo ofrecido: su ID es el de la reservación que se crea al confirmarlo
+    @Indexed(sparse = true)
+    private String holdId;
+    private String offeredSuiteId;
+    private Instant offerExpiresAt;
+
+    public WaitlistEntry() {}
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getSuiteId() {
+        return suiteId;
+    }
+
+    public void setSuiteId(String suiteId) {
+        this.suiteId = suiteId;
+    }
+
+    public String getSuiteType() {
+        return suiteType;
+    }
+
+    public void setSuiteType(String suiteType) {
+        this.suiteType = suiteType;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public void setCheckInDate(LocalDate checkInDate) {
+        this.checkInDate = checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public void setCheckOutDate(LocalDate checkOutDate) {
+        this.checkOutDate = checkOutDate;
+    }
+
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WaitlistStatus status) {
+        this.status = status;
+    }
+
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(String holdId) {
+        this.holdId = holdId;
+    }
+
+    public String getOfferedSuiteId() {
+        return offeredSuiteId;
+    }
+
+    public void setOfferedSuiteId(String offeredSuiteId) {
+        this.offeredSuiteId = offeredSuiteId;
+    }
+
+    public Instant getOfferExpiresAt() {
+        return offerExpiresAt;
+    }
+
+    public void setOfferExpiresAt(Instant offerExpiresAt) {
+        this.offerExpiresAt = offerExpiresAt;
+    }
+}
@@ -0,0 +1,9 @@
+package com.hotelreservation.model;
+
+// Estado de una solicitud en lista de espera: esperando noches libres, con un bloqueo ofrecido, o con el
+// bloqueo ya confirmado como reservación
+public enum WaitlistStatus {
+    WAITING,
+    OFFERED,
+    CONFIRMED
+}
@@ -1,9 +1,13 @@
 package com.hotelreservation.repository;
 
 import com.hotelreservation.model.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface CustomerRepository extends MongoRepository<Customer, String> {
     // Método para buscar por email
@@ -11,4 +15,13 @@ public interface CustomerRepository extends MongoRepository<Customer, String> {
 
     // Método para verificar si existe un email
     boolean existsByEmail(String email);
+
+    // Primera página sin conteo total
+    List<Customer> findAllBy(Pageable pageable);
+
+    // Página siguiente ordenada por ID
+    List<Customer> findByIdGreaterThan(String id, Pageable pageable);
+
+    // Recorrer todos los documentos con un cursor de Mongo
+    Stream<Customer> streamAllBy();
 }
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.hotelreservation.repository;
+
+import com.hotelreservation.model.Customer;
+import com.hotelreservation.model.DailyOccupancy;
+import com.hotelreservation.model.RateRange;
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.model.Suite;
+import com.hotelreservation.model.WaitlistEntry;
+import com.hotelreservation.model.WaitlistStatus;
+import com.mongodb.ExplainVerbosity;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Verificación al arrancar de que las consultas de los repositorios, y las de los contadores de ocupación, usan índices.
+// Ejecuta explain con el filtro y el orden de cada consulta derivada, con valores de ejemplo, y reporta
+// las que el planificador de Mongo resuelve con COLLSCAN. findAll y streamAllBy recorren la colección
+// completa a propósito y no se verifican. Las consultas reactivas se verifican con el mismo nombre de método
+// de su repositorio reactivo. QueryPlanVerifierTest falla si un método de consulta de un repositorio no
+// tiene aquí su entrada.
+@Component
+public class QueryPlanVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanVerifier.class);
+    private static final String SAMPLE_ID = "000000000000000000000000";
+    // Métodos de repositorio que recorren la colección completa a propósito
+    static final Set<String> FULL_SCAN_METHODS = Set.of("streamAllBy");
+
+    private final MongoTemplate mongoTemplate;
+    private final QueryMapper queryMapper;
+    private final boolean enabled;
+    private final boolean failOnCollectionScan;
+
+    @Autowired
+    public QueryPlanVerifier(
+            MongoTemplate mongoTemplate,
+            @Value("${hotel.mongo.query-plan-check.enabled:true}") boolean enabled,
+            @Value("${hotel.mongo.query-plan-check.fail-on-collection-scan:false}") boolean failOnCollectionScan) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        this.enabled = enabled;
+        this.failOnCollectionScan = failOnCollectionScan;
+    }
+
+    // Se ejecuta cuando la aplicación ya arrancó, después de que se crearon los índices declarados
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, CheckedQuery> queries = queries();
+        List<String> collectionScans = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            try {
+                if (usesCollectionScan(query.type(), query.query())) {
+                    collectionScans.add(name);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not explain {}: {}", name, e.getMessage());
+            }
+        });
+        if (collectionScans.isEmpty()) {
+            logger.info("Query plan check passed for {} repository queries", queries.size());
+            return;
+        }
+        if (failOnCollectionScan) {
+            throw new IllegalStateException("Repository queries without a usable index: " + collectionScans);
+        }
+        logger.warn("Repository queries resolved with COLLSCAN: {}", collectionScans);
+    }
+
+    // Filtros y órdenes equivalentes a los de cada método de los repositorios
+    static Map<String, CheckedQuery> queries() {
+        LocalDate day = LocalDate.now();
+        Sort byId = Sort.by("id");
+        return Map.ofEntries(
+                Map.entry("CustomerRepository.findByEmail",
+                        query(Customer.class, Criteria.where("email").is("sample@example.com"))),
+                Map.entry("CustomerRepository.existsByEmail",
+                        query(Customer.class, Criteria.where("email").is("sample@example.com"))),
+                Map.entry("ReactiveCustomerRepository.findByEmail",
+                        query(Customer.class, Criteria.where("email").is("sample@example.com"))),
+                Map.entry("ReactiveCustomerRepository.existsByEmail",
+                        query(Customer.class, Criteria.where("email").is("sample@example.com"))),
+                Map.entry("CustomerRepository.findByIdGreaterThan",
+                        query(Customer.class, Criteria.where("id").gt(SAMPLE_ID)).with(byId)),
+                Map.entry("CustomerRepository.findAllBy",
+                        new CheckedQuery(Customer.class, new Query()).with(byId)),
+                Map.entry("SuiteRepository.findByType",
+                        query(Suite.class, Criteria.where("type").is("Standard"))),
+                Map.entry("SuiteRepository.findByAvailable",
+                        query(Suite.class, Criteria.where("available").is(true))),
+                Map.entry("SuiteRepository.findByTypeAndAvailable",
+                        query(Suite.class, Criteria.where("type").is("Standard").and("available").is(true))),
+                Map.entry("SuiteRepository.findByPriceBetween",
+                        query(Suite.class, Criteria.where("price").gt(0.0).lt(1000.0))),
+                Map.entry("SuiteRepository.findAllBy",
+                        new CheckedQuery(Suite.class, new Query()).with(byId)),
+                Map.entry("SuiteRepository.findByIdGreaterThan",
+                        query(Suite.class, Criteria.where("id").gt(SAMPLE_ID)).with(byId)),
+                Map.entry("ReactiveSuiteRepository.findByType",
+                        query(Suite.class, Criteria.where("type").is("Standard"))),
+                Map.entry("ReactiveSuiteRepository.findByAvailable",
+                        query(Suite.class, Criteria.where("available").is(true))),
+                Map.entry("ReactiveSuiteRepository.findByTypeAndAvailable",
+                        query(Suite.class, Criteria.where("type").is("Standard").and("available").is(true))),
+                Map.entry("ReactiveSuiteRepository.findByPriceBetween",
+                        query(Suite.class, Criteria.where("price").gt(0.0).lt(1000.0))),
+                Map.entry("ReservationRepository.findByCustomerId",
+                        query(Reservation.class, Criteria.where("customerId").is(SAMPLE_ID))),
+                Map.entry("ReservationRepository.findBySuiteId",
+                        query(Reservation.class, Criteria.where("suiteId").is(SAMPLE_ID))),
+                Map.entry("ReservationRepository.findByCheckOutDateAfter",
+                        query(Reservation.class, Criteria.where("checkOutDate").gt(day))),
+                Map.entry("ReservationRepository.findByCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqual",
+                        query(Reservation.class, Criteria.where("checkInDate").lte(day).and("checkOutDate").gte(day))),
+                Map.entry("ReservationRepository.existsBySuiteIdAndCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqual",
+                        query(Reservation.class, Criteria.where("suiteId").is(SAMPLE_ID)
+                                .and("checkInDate").lte(day).and("checkOutDate").gte(day))),
+                Map.entry("ReactiveReservationRepository.findByCustomerId",
+                        query(Reservation.class, Criteria.where("customerId").is(SAMPLE_ID))),
+                Map.entry("ReactiveReservationRepository.findBySuiteId",
+                        query(Reservation.class, Criteria.where("suiteId").is(SAMPLE_ID))),
+                Map.entry("ReactiveReservationRepository.findByCheckOutDateAfter",
+                        query(Reservation.class, Criteria.where("checkOutDate").gt(day))),
+                Map.entry("ReactiveReservationRepository.findByCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqual",
+                        query(Reservation.class, Criteria.where("checkInDate").lte(day).and("checkOutDate").gte(day))),
+                Map.entry("ReservationRepository.findAllBy",
+                        new CheckedQuery(Reservation.class, new Query()).with(byId)),
+                Map.entry("ReservationRepository.findByIdGreaterThan",
+                        query(Reservation.class, Criteria.where("id").gt(SAMPLE_ID)).with(byId)),
+                Map.entry("ReservationRepository.findByCheckInDateGreaterThanOrCheckInDateAndIdGreaterThan",
+                        query(Reservation.class, new Criteria().orOperator(
+                                Criteria.where("checkInDate").gt(day),
+                                Criteria.where("checkInDate").is(day).and("id").gt(SAMPLE_ID)))
+                                .with(Sort.by("checkInDate", "id"))),
+                Map.entry("RateRangeRepository.findByLastNightGreaterThanEqualOrderByIdAsc",
+                        query(RateRange.class, Criteria.where("lastNight").gte(day)).with(byId)),
+                Map.entry("WaitlistRepository.findByStatusAndCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqualOrderByIdAsc",
+                        query(WaitlistEntry.class, Criteria.where("status").is(WaitlistStatus.WAITING)
+                                .and("checkInDate").lte(day).and("checkOutDate").gte(day)).with(byId)),
+                Map.entry("WaitlistRepository.findByHoldId",
+                        query(WaitlistEntry.class, Criteria.where("holdId").is(SAMPLE_ID))),
+                Map.entry("OccupancyCounters.find",
+                        query(DailyOccupancy.class, Criteria.where("day").gte(day).lte(day.plusDays(30)))));
+    }
+
+    private boolean usesCollectionScan(Class<?> type, Query query) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        Document explain = mongoTemplate.getCollection(mongoTemplate.getCollectionName(type))
+                .find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+                .sort(queryMapper.getMappedSort(query.getSortObject(), entity))
+                .limit(1)
+                .explain(ExplainVerbosity.QUERY_PLANNER);
+        Object winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan");
+        return containsStage(winningPlan, "COLLSCAN");
+    }
+
+    // El plan ganador es un árbol de etapas; según la versión del servidor puede venir anidado en "queryPlan"
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (plan instanceof List<?> plans) {
+            return plans.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+
+    private static CheckedQuery query(Class<?> type, Criteria criteria) {
+        return new CheckedQuery(type, new Query(criteria));
+    }
+
+    record CheckedQuery(Class<?> type, Query query) {
+        CheckedQuery with(Sort sort) {
+            query.with(sort);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.hotelreservation.repository;
+
+import com.hotelreservation.model.RateRange;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RateRangeRepository extends MongoRepository<RateRange, String> {
+    // Rangos que aún tienen noches a partir del día dado, en el orden en que se crearon
+    List<RateRange> findByLastNightGreaterThanEqualOrderByIdAsc(LocalDate day);
+}
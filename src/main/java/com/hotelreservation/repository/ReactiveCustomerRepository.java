@@ -0,0 +1,15 @@
+package com.hotelreservation.repository;
+
+import com.hotelreservation.model.Customer;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveCustomerRepository extends ReactiveMongoRepository<Customer, String> {
+    // Método para buscar por email
+    Mono<Customer> findByEmail(String email);
+
+    // Método para verificar si existe un email
+    Mono<Boolean> existsByEmail(String email);
+}
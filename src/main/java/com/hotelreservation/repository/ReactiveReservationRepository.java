@@ -0,0 +1,24 @@
+package com.hotelreservation.repository;
+
+import com.hotelreservation.model.Reservation;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ReactiveReservationRepository extends ReactiveMongoRepository<Reservation, String> {
+    // Buscar reservaciones por cliente
+    Flux<Reservation> findByCustomerId(String customerId);
+
+    // Buscar reservaciones por suite
+    Flux<Reservation> findBySuiteId(String suiteId);
+
+    // Buscar reservaciones activas (fecha de salida posterior a hoy)
+    Flux<Reservation> findByCheckOutDateAfter(LocalDate date);
+
+    // Buscar reservaciones por rango de fechas
+    Flux<Reservation> findByCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqual(
+            LocalDate checkOutDate, LocalDate checkInDate);
+}
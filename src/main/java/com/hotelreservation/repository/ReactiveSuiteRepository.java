@@ -0,0 +1,21 @@
+package com.hotelreservation.repository;
+
+import com.hotelreservation.model.Suite;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveSuiteRepository extends ReactiveMongoRepository<Suite, String> {
+    // Buscar suites por tipo
+    Flux<Suite> findByType(String type);
+
+    // Buscar suites disponibles
+    Flux<Suite> findByAvailable(boolean available);
+
+    // Buscar suites por tipo y disponibilidad
+    Flux<Suite> findByTypeAndAvailable(String type, boolean available);
+
+    // Buscar suites por rango de precio
+    Flux<Suite> findByPriceBetween(double minPrice, double maxPrice);
+}
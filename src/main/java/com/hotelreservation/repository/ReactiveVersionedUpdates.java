@@ -0,0 +1,73 @@
+package com.hotelreservation.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.function.Function;
+
+// Versión no bloqueante de VersionedUpdates para el perfil "reactive": el mismo $set condicionado a la
+// versión leída, con los reintentos acotados por hotel.concurrency.max-attempts.
+@Component
+@Profile("reactive")
+public class ReactiveVersionedUpdates {
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final int maxAttempts;
+
+    @Autowired
+    public ReactiveVersionedUpdates(
+            ReactiveMongoTemplate mongoTemplate,
+            @Value("${hotel.concurrency.max-attempts:3}") int maxAttempts) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxAttempts = maxAttempts;
+    }
+
+    // Aplicar el cambio si el documento sigue en la versión indicada; emite el documento actualizado,
+    // o nada si otro escritor lo cambió o lo eliminó
+    public <T> Mono<T> updateIfVersion(Class<T> type, String id, Long version, Update update) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("version").is(version));
+        return mongoTemplate.findAndModify(
+                query, update.inc("version", 1), FindAndModifyOptions.options().returnNew(true), type);
+    }
+
+    // Leer el documento, calcular el cambio a partir de lo leído y aplicarlo con updateIfVersion,
+    // reintentando con una lectura nueva si otro escritor ganó. Vacío si el documento no existe.
+    public <T> Mono<VersionedUpdates.Change<T>> update(Class<T> type, String id, Function<T, Long> versionOf,
+                                                      Function<T, Update> changes) {
+        return Mono.defer(() -> mongoTemplate.findById(id, type))
+                .flatMap(before -> updateIfVersion(type, id, versionOf.apply(before), changes.apply(before))
+                        .map(after -> new VersionedUpdates.Change<>(before, after))
+                        .switchIfEmpty(Mono.error(() -> concurrentChange(type, id))))
+                .retryWhen(retryOnConcurrentChange());
+    }
+
+    // Reintentar desde la lectura mientras el error sea un cambio concurrente, hasta maxAttempts intentos en total.
+    // Una versión vieja enviada por el cliente (requireVersion) no se reintenta.
+    public Retry retryOnConcurrentChange() {
+        return Retry.max(maxAttempts - 1L)
+                .filter(ConcurrentChangeException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    // Error que señala que otro escritor ganó y hay que volver a leer
+    public static OptimisticLockingFailureException concurrentChange(Class<?> type, String id) {
+        return new ConcurrentChangeException(type.getSimpleName() + " " + id + " changed concurrently");
+    }
+
+    private static final class ConcurrentChangeException extends OptimisticLockingFailureException {
+        private static final long serialVersionUID = 1L;
+
+        ConcurrentChangeException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.hotelreservation.repository;
 
 import com.hotelreservation.model.Reservation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservationRepository extends MongoRepository<Reservation, String> {
@@ -25,4 +27,17 @@ public interface ReservationRepository extends MongoRepository<Reservation, Stri
     // Verificar si existe una reservación para una suite en un rango de fechas
     boolean existsBySuiteIdAndCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqual(
             String suiteId, LocalDate checkOutDate, LocalDate checkInDate);
+
+    // Primera página sin conteo total
+    List<Reservation> findAllBy(Pageable pageable);
+
+    // Página siguiente ordenada por ID
+    List<Reservation> findByIdGreaterThan(String id, Pageable pageable);
+
+    // Página siguiente ordenada por fecha de entrada y luego por ID
+    List<Reservation> findByCheckInDateGreaterThanOrCheckInDateAndIdGreaterThan(
+            LocalDate checkInDate, LocalDate sameCheckInDate, String id, Pageable pageable);
+
+    // Recorrer todas las reservaciones con un cursor de Mongo
+    Stream<Reservation> streamAllBy();
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.hotelreservation.repository;
 
 import com.hotelreservation.model.Suite;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface SuiteRepository extends MongoRepository<Suite, String> {
@@ -19,4 +21,13 @@ public interface SuiteRepository extends MongoRepository<Suite, String> {
 
     // Buscar suites por rango de precio
     List<Suite> findByPriceBetween(double minPrice, double maxPrice);
+
+    // Primera página sin conteo total
+    List<Suite> findAllBy(Pageable pageable);
+
+    // Página siguiente ordenada por ID
+    List<Suite> findByIdGreaterThan(String id, Pageable pageable);
+
+    // Recorrer todos los documentos con un cursor de Mongo
+    Stream<Suite> streamAllBy();
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.hotelreservation.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Actualizaciones parciales ($set) de documentos con @Version, condicionadas a la versión leída.
+// Solo viajan los campos que cambian y la versión se incrementa en la misma operación, así que dos
+// escritores que leyeron la misma versión no pueden pisarse: el segundo no encuentra el documento y
+// vuelve a leerlo, hasta maxAttempts veces, antes de rendirse con OptimisticLockingFailureException.
+@Component
+public class VersionedUpdates {
+    private final MongoTemplate mongoTemplate;
+    private final int maxAttempts;
+
+    @Autowired
+    public VersionedUpdates(
+            MongoTemplate mongoTemplate,
+            @Value("${hotel.concurrency.max-attempts:3}") int maxAttempts) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    // Aplicar el cambio si el documento sigue en la versión indicada; devuelve el documento actualizado,
+    // o vacío si otro escritor lo cambió o lo eliminó
+    public <T> Optional<T> updateIfVersion(Class<T> type, String id, Long version, Update update) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("version").is(version));
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query, update.inc("version", 1), FindAndModifyOptions.options().returnNew(true), type));
+    }
+
+    // Leer el documento, calcular el cambio a partir de lo leído y aplicarlo con updateIfVersion,
+    // reintentando con una lectura nueva si otro escritor ganó. Vacío si el documento no existe.
+    public <T> Optional<Change<T>> update(Class<T> type, String id, Function<T, Long> versionOf,
+                                         Function<T, Update> changes) {
+        for (int attempt = 1; ; attempt++) {
+            T before = mongoTemplate.findById(id, type);
+            if (before == null) {
+                return Optional.empty();
+            }
+            Optional<T> after = updateIfVersion(type, id, versionOf.apply(before), changes.apply(before));
+            if (after.isPresent()) {
+                return Optional.of(new Change<>(before, after.get()));
+            }
+            if (attempt >= maxAttempts) {
+                throw new OptimisticLockingFailureException(
+                        type.getSimpleName() + " " + id + " changed concurrently " + attempt + " times");
+            }
+        }
+    }
+
+    // Rechazar la escritura si el cliente envió la versión sobre la que hizo sus cambios y ya no es la actual
+    public static void requireVersion(Long expected, Long actual, String id) {
+        if (expected != null && !Objects.equals(expected, actual)) {
+            throw new OptimisticLockingFailureException(
+                    "Document " + id + " is at version " + actual + ", not " + expected);
+        }
+    }
+
+    public record Change<T>(T before, T after) {}
+}
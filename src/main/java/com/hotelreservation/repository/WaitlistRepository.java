@@ -0,0 +1,21 @@
+package com.hotelreservation.repository;
+
+import com.hotelreservation.model.WaitlistEntry;
+import com.hotelreservation.model.WaitlistStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends MongoRepository<WaitlistEntry, String> {
+    // Solicitudes en el estado dado cuyas fechas se traslapan con el rango (ambos extremos inclusivos),
+    // en orden de llegada
+    List<WaitlistEntry> findByStatusAndCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqualOrderByIdAsc(
+            WaitlistStatus status, LocalDate end, LocalDate start);
+
+    // Solicitud a la que se ofreció el bloqueo
+    Optional<WaitlistEntry> findByHoldId(String holdId);
+}
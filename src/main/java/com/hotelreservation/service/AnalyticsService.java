@@ -0,0 +1,250 @@
+package com.hotelreservation.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotelreservation.dto.OccupancyStats;
+import com.hotelreservation.dto.ReportPeriod;
+import com.hotelreservation.dto.RevenueStats;
+import com.hotelreservation.model.DailyOccupancy;
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.model.Suite;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Reportes de ocupación e ingresos por periodo y tipo de suite.
+// Los totales salen de los contadores diarios de OccupancyCounters, así que un reporte lee O(días) documentos.
+// Si los contadores están deshabilitados, las noches vendidas se calculan dentro de Mongo con un pipeline de
+// agregación: cada reservación se recorta al rango pedido, se expande a una fila por noche y se agrupa por
+// periodo y tipo, así que solo viajan los totales.
+// Los totales de los periodos ya cerrados se guardan en caché por periodo. Una reservación creada, movida o
+// cancelada en días pasados, o una reconstrucción de los contadores, descarta los periodos afectados.
+@Service
+@Timed(value = "hotel.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
+public class AnalyticsService {
+    private final MongoTemplate mongoTemplate;
+    private final OccupancyCounters occupancyCounters;
+    private final int maxDays;
+    private final Cache<PeriodKey, Map<String, Totals>> closedPeriods;
+    // Spring Data guarda las LocalDate como medianoche en la zona del sistema
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Autowired
+    public AnalyticsService(
+            MongoTemplate mongoTemplate,
+            OccupancyCounters occupancyCounters,
+            MeterRegistry meterRegistry,
+            @Value("${hotel.analytics.max-days:1096}") int maxDays,
+            @Value("${hotel.analytics.cache.maximum-size:10000}") long cacheMaximumSize,
+            @Value("${hotel.analytics.cache.expire-after-write:1d}") Duration cacheExpireAfterWrite) {
+        this.mongoTemplate = mongoTemplate;
+        this.occupancyCounters = occupancyCounters;
+        this.maxDays = maxDays;
+        this.closedPeriods = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheExpireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, closedPeriods, "analytics");
+    }
+
+    // Ocupación por periodo y tipo de suite entre dos fechas (ambas noches inclusivas)
+    public List<OccupancyStats> getOccupancy(LocalDate from, LocalDate to, ReportPeriod period) {
+        Map<LocalDate, Map<String, Totals>> totals = getTotals(from, to, period);
+        Map<String, Long> suitesByType = countSuitesByType();
+        List<OccupancyStats> stats = new ArrayList<>();
+        totals.forEach((start, byType) -> {
+            long days = ChronoUnit.DAYS.between(max(start, from), min(period.next(start), to.plusDays(1)));
+            for (String type : types(suitesByType.keySet(), byType.keySet())) {
+                long nights = byType.getOrDefault(type, Totals.EMPTY).nights();
+                stats.add(new OccupancyStats(start, type, nights, suitesByType.getOrDefault(type, 0L) * days));
+            }
+        });
+        return stats;
+    }
+
+    // Ingresos por periodo y tipo de suite entre dos fechas (ambas noches inclusivas)
+    public List<RevenueStats> getRevenue(LocalDate from, LocalDate to, ReportPeriod period) {
+        List<RevenueStats> stats = new ArrayList<>();
+        getTotals(from, to, period).forEach((start, byType) -> {
+            for (String type : new TreeSet<>(byType.keySet())) {
+                Totals totals = byType.get(type);
+                stats.add(new RevenueStats(start, type, totals.nights(), totals.revenue()));
+            }
+        });
+        return stats;
+    }
+
+    // Totales por periodo: los periodos cerrados y completos salen de la caché y el resto se calcula
+    // con una sola agregación sobre el tramo que falta
+    private Map<LocalDate, Map<String, Totals>> getTotals(LocalDate from, LocalDate to, ReportPeriod period) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La fecha inicial debe ser anterior a la fecha final");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new IllegalArgumentException("El rango no puede ser mayor a " + maxDays + " días");
+        }
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, Map<String, Totals>> totals = new TreeMap<>();
+        LocalDate missingFrom = null;
+        LocalDate missingTo = null;
+        for (LocalDate start = period.start(from); !start.isAfter(to); start = period.next(start)) {
+            Map<String, Totals> cached = isClosed(start, from, to, today, period)
+                    ? closedPeriods.getIfPresent(new PeriodKey(period, start))
+                    : null;
+            if (cached != null) {
+                totals.put(start, cached);
+            } else {
+                missingFrom = missingFrom == null ? max(start, from) : missingFrom;
+                missingTo = min(period.next(start).minusDays(1), to);
+            }
+        }
+        if (missingFrom == null) {
+            return totals;
+        }
+        Map<LocalDate, Map<String, Totals>> aggregated = aggregate(missingFrom, missingTo, period);
+        for (LocalDate start = period.start(missingFrom); !start.isAfter(missingTo); start = period.next(start)) {
+            if (!totals.containsKey(start)) {
+                Map<String, Totals> byType = aggregated.getOrDefault(start, Map.of());
+                totals.put(start, byType);
+                if (isClosed(start, from, to, today, period)) {
+                    closedPeriods.put(new PeriodKey(period, start), byType);
+                }
+            }
+        }
+        return totals;
+    }
+
+    // Un periodo se puede guardar en caché si ya terminó y el rango pedido lo cubre completo
+    private static boolean isClosed(LocalDate start, LocalDate from, LocalDate to, LocalDate today, ReportPeriod period) {
+        LocalDate end = period.next(start).minusDays(1);
+        return !start.isBefore(from) && !end.isAfter(to) && end.isBefore(today);
+    }
+
+    // Descartar los periodos en caché que se cruzan con los días que cambiaron
+    @EventListener
+    public void onOccupancyChanged(OccupancyChanged changed) {
+        closedPeriods.asMap().keySet().removeIf(key -> !key.start().isAfter(changed.to())
+                && !key.period().next(key.start()).minusDays(1).isBefore(changed.from()));
+    }
+
+    private Map<LocalDate, Map<String, Totals>> aggregate(LocalDate from, LocalDate to, ReportPeriod period) {
+        return occupancyCounters.isEnabled()
+                ? aggregateCounters(from, to, period)
+                : aggregateReservations(from, to, period);
+    }
+
+    // Sumar los contadores diarios de cada periodo
+    private Map<LocalDate, Map<String, Totals>> aggregateCounters(LocalDate from, LocalDate to, ReportPeriod period) {
+        Map<LocalDate, Map<String, Totals>> totals = new HashMap<>();
+        for (DailyOccupancy counter : occupancyCounters.find(from, to)) {
+            if (counter.getNights() != 0) {
+                totals.computeIfAbsent(period.start(counter.getDay()), key -> new HashMap<>())
+                        .merge(counter.getSuiteType(), new Totals(counter.getNights(), counter.getRevenue()), Totals::plus);
+            }
+        }
+        return totals;
+    }
+
+    private Map<LocalDate, Map<String, Totals>> aggregateReservations(LocalDate from, LocalDate to, ReportPeriod period) {
+        Date start = toDate(from);
+        Date end = toDate(to.plusDays(1));
+        String timezone = zone.getId();
+        Document periodStart = new Document("date", new Document("$dateAdd", new Document("startDate", "$start")
+                .append("unit", "day").append("amount", "$night").append("timezone", timezone)))
+                .append("unit", period.name().toLowerCase())
+                .append("timezone", timezone);
+        if (period == ReportPeriod.WEEK) {
+            periodStart.append("startOfWeek", "monday");
+        }
+        List<Document> pipeline = List.of(
+                // Reservaciones con al menos una noche dentro del rango
+                new Document("$match", new Document("checkInDate", new Document("$lt", end))
+                        .append("checkOutDate", new Document("$gt", start))),
+                new Document("$project", new Document("suiteType", new Document("$ifNull", List.of("$suiteType", OccupancyCounters.UNKNOWN_TYPE)))
+                        .append("suitePrice", 1)
+                        .append("start", new Document("$max", List.of("$checkInDate", start)))
+                        .append("end", new Document("$min", List.of("$checkOutDate", end)))),
+                // Una fila por noche dentro del rango
+                new Document("$project", new Document("suiteType", 1)
+                        .append("suitePrice", 1)
+                        .append("start", 1)
+                        .append("night", new Document("$range", List.of(0, new Document("$dateDiff",
+                                new Document("startDate", "$start").append("endDate", "$end")
+                                        .append("unit", "day").append("timezone", timezone)))))),
+                new Document("$unwind", "$night"),
+                new Document("$group", new Document("_id", new Document("period", new Document("$dateTrunc", periodStart))
+                        .append("suiteType", "$suiteType"))
+                        .append("nights", new Document("$sum", 1))
+                        .append("revenue", new Document("$sum", "$suitePrice"))));
+
+        Map<LocalDate, Map<String, Totals>> totals = new HashMap<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Reservation.class))
+                .aggregate(pipeline)
+                .forEach(row -> {
+                    Document id = row.get("_id", Document.class);
+                    LocalDate periodStartDate = id.getDate("period").toInstant().atZone(zone).toLocalDate();
+                    totals.computeIfAbsent(periodStartDate, key -> new HashMap<>()).put(id.getString("suiteType"),
+                            new Totals(row.get("nights", Number.class).longValue(),
+                                    row.get("revenue", Number.class).doubleValue()));
+                });
+        return totals;
+    }
+
+    // Número actual de suites por tipo, para calcular las noches disponibles
+    private Map<String, Long> countSuitesByType() {
+        Map<String, Long> counts = new HashMap<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Suite.class))
+                .aggregate(List.of(new Document("$group", new Document("_id", new Document("$ifNull", List.of("$type", OccupancyCounters.UNKNOWN_TYPE)))
+                        .append("count", new Document("$sum", 1)))))
+                .forEach(row -> counts.put(row.getString("_id"), row.get("count", Number.class).longValue()));
+        return counts;
+    }
+
+    private static TreeSet<String> types(Iterable<String> first, Iterable<String> second) {
+        TreeSet<String> types = new TreeSet<>();
+        first.forEach(types::add);
+        second.forEach(types::add);
+        return types;
+    }
+
+    private Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(zone).toInstant());
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private record PeriodKey(ReportPeriod period, LocalDate start) {}
+
+    private record Totals(long nights, double revenue) {
+        static final Totals EMPTY = new Totals(0, 0);
+
+        Totals plus(Totals other) {
+            return new Totals(nights + other.nights, revenue + other.revenue);
+        }
+    }
+}
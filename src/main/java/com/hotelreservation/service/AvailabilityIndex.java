@@ -0,0 +1,347 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.Suite;
+import com.hotelreservation.repository.SuiteRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice de disponibilidad por fecha: un bitmap por día del horizonte de reservas con un bit por suite.
+// Buscar suites libres en un rango es combinar los bitmaps de esos días y filtrar por tipo y precio,
+// sin consultar Mongo ni recorrer las reservaciones.
+// Los cambios de estructura (catálogo, capacidad, horizonte) toman el candado de escritura. Publicar la
+// ocupación de una suite solo toma el de lectura y cambia sus bits con operaciones atómicas por palabra,
+// así que las reservaciones de suites distintas se publican en paralelo.
+@Component
+@DependsOn("suiteInServiceMigration")
+public class AvailabilityIndex {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndex.class);
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final SuiteRepository suiteRepository;
+    private final int horizonDays;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Cada suite ocupa una posición fija en los bitmaps; las posiciones liberadas se reutilizan
+    private final Map<String, Integer> slotBySuiteId = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<String, long[]> slotsByType = new HashMap<>();
+    private Suite[] suites = new Suite[64];
+    private long[] activeSlots = new long[1];
+    private int nextSlot;
+
+    // Primer día del horizonte y bitmaps de suites ocupadas por día
+    private long windowStart;
+    private long[][] bookedByDay;
+
+    @Autowired
+    public AvailabilityIndex(
+            SuiteRepository suiteRepository,
+            @Value("${hotel.availability.horizon-days:366}") int horizonDays) {
+        this.suiteRepository = suiteRepository;
+        this.horizonDays = horizonDays;
+        this.windowStart = LocalDate.now().toEpochDay();
+        this.bookedByDay = new long[horizonDays][activeSlots.length];
+    }
+
+    // Cargar el catálogo de suites; al recargarlo se quitan las suites que ya no existen
+    @PostConstruct
+    public void load() {
+        List<Suite> allSuites = suiteRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            Set<String> removed = new HashSet<>(slotBySuiteId.keySet());
+            for (Suite suite : allSuites) {
+                putSuiteLocked(suite);
+                removed.remove(suite.getId());
+            }
+            removed.forEach(this::removeSuiteLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Availability index loaded with {} suites over {} days", allSuites.size(), horizonDays);
+    }
+
+    // Indica si el rango cae completo dentro del horizonte indexado
+    public boolean covers(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return from.toEpochDay() >= windowStart && to.toEpochDay() < windowStart + horizonDays;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Buscar suites libres en todo el rango (ambos extremos inclusivos), filtrando por tipo y precio
+    public Optional<List<Suite>> findAvailable(
+            LocalDate from, LocalDate to, String type, Double minPrice, Double maxPrice) {
+        lock.readLock().lock();
+        try {
+            long first = from.toEpochDay() - windowStart;
+            long last = to.toEpochDay() - windowStart;
+            if (first < 0 || last >= horizonDays) {
+                return Optional.empty();
+            }
+
+            long[] candidates = Arrays.copyOf(activeSlots, activeSlots.length);
+            if (type != null) {
+                long[] ofType = slotsByType.get(type);
+                if (ofType == null) {
+                    return Optional.of(List.of());
+                }
+                and(candidates, ofType);
+            }
+            for (int day = (int) first; day <= last; day++) {
+                andNot(candidates, bookedByDay[day]);
+            }
+
+            List<Suite> result = new ArrayList<>();
+            for (int word = 0; word < candidates.length; word++) {
+                long bits = candidates[word];
+                while (bits != 0) {
+                    Suite suite = suites[(word << 6) + Long.numberOfTrailingZeros(bits)];
+                    bits &= bits - 1;
+                    if (suite.isAvailable()
+                            && (minPrice == null || suite.getPrice() >= minPrice)
+                            && (maxPrice == null || suite.getPrice() <= maxPrice)) {
+                        result.add(suite);
+                    }
+                }
+            }
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Registrar o actualizar una suite del catálogo
+    public void putSuite(Suite suite) {
+        lock.writeLock().lock();
+        try {
+            putSuiteLocked(suite);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Quitar una suite del catálogo y liberar su posición
+    public void removeSuite(String suiteId) {
+        lock.writeLock().lock();
+        try {
+            removeSuiteLocked(suiteId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Marcar como ocupados los días [from, to] de una suite, en días epoch inclusivos; los días fuera del
+    // horizonte se ignoran. Cuesta O(días del rango), sin importar cuántas reservaciones tenga la suite.
+    // El llamador serializa los cambios de una misma suite (BookingCalendar lo hace con su candado).
+    public void mark(String suiteId, long from, long to) {
+        apply(suiteId, from, to, true);
+    }
+
+    // Marcar como libres los días [from, to] de una suite; el llamador solo pasa días que ya no cubre
+    // ninguna otra reservación de la suite
+    public void clear(String suiteId, long from, long to) {
+        apply(suiteId, from, to, false);
+    }
+
+    private void apply(String suiteId, long from, long to, boolean booked) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotBySuiteId.get(suiteId);
+            if (slot == null) {
+                return;
+            }
+            long first = Math.max(from, windowStart) - windowStart;
+            long last = Math.min(to, windowStart + horizonDays - 1) - windowStart;
+            int word = slot >>> 6;
+            long bit = 1L << slot;
+            for (int day = (int) first; day <= last; day++) {
+                if (booked) {
+                    WORDS.getAndBitwiseOr(bookedByDay[day], word, bit);
+                } else {
+                    WORDS.getAndBitwiseAnd(bookedByDay[day], word, ~bit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reemplazar la ocupación completa de una suite; cada rango es {inicio, fin} en días epoch inclusivos.
+    // Recorre todo el horizonte, así que solo se usa al reconstruir o recargar el calendario; los cambios de
+    // una reservación usan mark y clear. Primero se marcan los días nuevos y después se liberan los que ya
+    // no están, así un día que sigue ocupado nunca se ve libre.
+    public void setBookings(String suiteId, Collection<long[]> ranges) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotBySuiteId.get(suiteId);
+            if (slot == null) {
+                return;
+            }
+            long[] after = daysOf(ranges);
+            int word = slot >>> 6;
+            long bit = 1L << slot;
+            for (int day = 0; day < horizonDays; day++) {
+                if ((after[day >>> 6] & (1L << day)) != 0) {
+                    WORDS.getAndBitwiseOr(bookedByDay[day], word, bit);
+                }
+            }
+            for (int day = 0; day < horizonDays; day++) {
+                if ((after[day >>> 6] & (1L << day)) == 0) {
+                    WORDS.getAndBitwiseAnd(bookedByDay[day], word, ~bit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Días del horizonte cubiertos por los rangos, como bitmap con un bit por día; se llama con un candado tomado
+    private long[] daysOf(Collection<long[]> ranges) {
+        long[] days = new long[(horizonDays + 63) >>> 6];
+        for (long[] range : ranges) {
+            long first = Math.max(range[0], windowStart) - windowStart;
+            long last = Math.min(range[1], windowStart + horizonDays - 1) - windowStart;
+            for (int day = (int) first; day <= last; day++) {
+                days[day >>> 6] |= 1L << day;
+            }
+        }
+        return days;
+    }
+
+    // Reconstruir la ocupación completa con el horizonte comenzando hoy
+    public void rebuild(Map<String, ? extends Collection<long[]>> rangesBySuiteId) {
+        long start = LocalDate.now().toEpochDay();
+        lock.writeLock().lock();
+        try {
+            long[][] rebuilt = new long[horizonDays][activeSlots.length];
+            rangesBySuiteId.forEach((suiteId, ranges) -> {
+                Integer slot = slotBySuiteId.get(suiteId);
+                if (slot != null) {
+                    for (long[] range : ranges) {
+                        markRange(rebuilt, start, slot, range[0], range[1]);
+                    }
+                }
+            });
+            windowStart = start;
+            bookedByDay = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeSuiteLocked(String suiteId) {
+        Integer slot = slotBySuiteId.remove(suiteId);
+        if (slot != null) {
+            clearSlot(slot);
+            freeSlots.push(slot);
+        }
+    }
+
+    private void putSuiteLocked(Suite suite) {
+        Integer slot = slotBySuiteId.get(suite.getId());
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+            slotBySuiteId.put(suite.getId(), slot);
+            ensureCapacity(slot + 1);
+            setBit(activeSlots, slot);
+        } else if (suites[slot].getType() != null && !suites[slot].getType().equals(suite.getType())) {
+            long[] previousType = slotsByType.get(suites[slot].getType());
+            if (previousType != null) {
+                clearBit(previousType, slot);
+            }
+        }
+        suites[slot] = suite;
+        if (suite.getType() != null) {
+            long[] ofType = slotsByType.computeIfAbsent(suite.getType(), t -> new long[activeSlots.length]);
+            setBit(ofType, slot);
+        }
+    }
+
+    private void clearSlot(int slot) {
+        Suite suite = suites[slot];
+        if (suite != null && suite.getType() != null) {
+            long[] ofType = slotsByType.get(suite.getType());
+            if (ofType != null) {
+                clearBit(ofType, slot);
+            }
+        }
+        suites[slot] = null;
+        clearBit(activeSlots, slot);
+        for (long[] booked : bookedByDay) {
+            clearBit(booked, slot);
+        }
+    }
+
+    private void markRange(long[][] days, long start, int slot, long from, long to) {
+        long first = Math.max(from, start) - start;
+        long last = Math.min(to, start + horizonDays - 1) - start;
+        for (int day = (int) first; day <= last; day++) {
+            setBit(days[day], slot);
+        }
+    }
+
+    private void ensureCapacity(int slots) {
+        if (slots > suites.length) {
+            suites = Arrays.copyOf(suites, Math.max(slots, suites.length * 2));
+        }
+        int words = (slots + 63) >>> 6;
+        if (words <= activeSlots.length) {
+            return;
+        }
+        int grown = Math.max(words, activeSlots.length * 2);
+        activeSlots = Arrays.copyOf(activeSlots, grown);
+        slotsByType.replaceAll((t, bits) -> Arrays.copyOf(bits, grown));
+        for (int day = 0; day < bookedByDay.length; day++) {
+            bookedByDay[day] = Arrays.copyOf(bookedByDay[day], grown);
+        }
+    }
+
+    private static void and(long[] target, long[] mask) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= i < mask.length ? mask[i] : 0L;
+        }
+    }
+
+    // La máscara es un bitmap de ocupación que otras suites pueden estar cambiando en este momento
+    private static void andNot(long[] target, long[] mask) {
+        int words = Math.min(target.length, mask.length);
+        for (int i = 0; i < words; i++) {
+            target[i] &= ~(long) WORDS.getOpaque(mask, i);
+        }
+    }
+
+    private static void setBit(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static void clearBit(long[] bits, int index) {
+        if ((index >>> 6) < bits.length) {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.repository.ReservationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Calendario de ocupación en memoria por suite.
+// Se carga una vez desde Mongo al arrancar y se mantiene al crear, actualizar y cancelar
+// reservaciones, de modo que la verificación de traslape no requiere ir a la base de datos.
+// Cada cambio publica al índice de disponibilidad solo los días que cambiaron; la reconstrucción diaria
+// del índice también descarta las reservaciones que ya terminaron.
+@Component
+@DependsOn("reservationReferenceMigration")
+public class BookingCalendar {
+    private static final Logger logger = LoggerFactory.getLogger(BookingCalendar.class);
+
+    private final ReservationRepository reservationRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final Map<String, SuiteCalendar> calendars = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingCalendar(ReservationRepository reservationRepository, AvailabilityIndex availabilityIndex) {
+        this.reservationRepository = reservationRepository;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    // Cargar el calendario a partir de las reservaciones existentes
+    @PostConstruct
+    public void load() {
+        calendars.clear();
+        int loaded = 0;
+        for (Reservation reservation : reservationRepository.findAll()) {
+            if (add(reservation, false)) {
+                loaded++;
+            }
+        }
+        reindex();
+        logger.info("Booking calendar loaded with {} reservations for {} suites", loaded, calendars.size());
+    }
+
+    // Recorrer el horizonte del índice de disponibilidad al cambiar el día y descartar las reservaciones
+    // que terminaron antes de hoy
+    @Scheduled(cron = "${hotel.availability.reindex-cron:0 0 0 * * *}")
+    public void reindex() {
+        long today = LocalDate.now().toEpochDay();
+        Map<String, List<long[]>> rangesBySuiteId = new HashMap<>();
+        calendars.forEach((suiteId, calendar) -> {
+            calendar.lock();
+            try {
+                calendar.prune(today);
+                rangesBySuiteId.put(suiteId, calendar.ranges());
+            } finally {
+                calendar.unlock();
+            }
+        });
+        availabilityIndex.rebuild(rangesBySuiteId);
+        // Volver a publicar cada suite bajo su candado para no perder cambios hechos durante la reconstrucción
+        calendars.forEach((suiteId, calendar) -> {
+            calendar.lock();
+            try {
+                availabilityIndex.setBookings(suiteId, calendar.ranges());
+            } finally {
+                calendar.unlock();
+            }
+        });
+    }
+
+    // Verificar si una suite tiene alguna reservación que se traslape con el rango (ambos extremos inclusivos)
+    public boolean isBooked(String suiteId, LocalDate checkInDate, LocalDate checkOutDate) {
+        SuiteCalendar calendar = calendars.get(suiteId);
+        if (calendar == null) {
+            return false;
+        }
+        calendar.lock();
+        try {
+            return calendar.overlaps(checkInDate.toEpochDay(), checkOutDate.toEpochDay());
+        } finally {
+            calendar.unlock();
+        }
+    }
+
+    // Registrar la reservación solo si no se traslapa con otra de la misma suite.
+    // La verificación y el registro son atómicos por suite: únicamente compiten entre sí las
+    // reservaciones de una misma suite, mientras que las de suites distintas avanzan en paralelo.
+    public boolean tryReserve(Reservation reservation) {
+        if (!isComplete(reservation)) {
+            throw new IllegalArgumentException("La reservación debe tener ID, suite y fechas");
+        }
+        Booking booking = bookingOf(reservation);
+        SuiteCalendar calendar = calendars.computeIfAbsent(reservation.getSuiteId(), id -> new SuiteCalendar());
+        calendar.lock();
+        try {
+            if (calendar.overlaps(booking.start(), booking.end())) {
+                return false;
+            }
+            calendar.add(booking);
+            availabilityIndex.mark(reservation.getSuiteId(), booking.start(), booking.end());
+        } finally {
+            calendar.unlock();
+        }
+        return true;
+    }
+
+    // Registrar un lote de reservaciones en una sola pasada y devolver cuáles se traslapan.
+    // Se toman los candados de todas las suites del lote en orden de ID, así que el lote es atómico
+    // frente a otras reservaciones sin riesgo de bloqueo mutuo. Dentro del lote gana la primera
+    // reservación de cada traslape; con allOrNothing, si alguna se traslapa no se registra ninguna.
+    public boolean[] tryReserveAll(List<Reservation> reservations, boolean allOrNothing) {
+        Map<String, SuiteCalendar> bySuite = new TreeMap<>();
+        for (Reservation reservation : reservations) {
+            if (!isComplete(reservation)) {
+                throw new IllegalArgumentException("La reservación debe tener ID, suite y fechas");
+            }
+            bySuite.computeIfAbsent(reservation.getSuiteId(),
+                    suiteId -> calendars.computeIfAbsent(suiteId, id -> new SuiteCalendar()));
+        }
+        boolean[] conflicts = new boolean[reservations.size()];
+        List<SuiteCalendar> locked = new ArrayList<>(bySuite.size());
+        try {
+            for (SuiteCalendar calendar : bySuite.values()) {
+                calendar.lock();
+                locked.add(calendar);
+            }
+            reserveAll(reservations, allOrNothing, bySuite, conflicts);
+        } finally {
+            locked.forEach(SuiteCalendar::unlock);
+        }
+        return conflicts;
+    }
+
+    private void reserveAll(List<Reservation> reservations, boolean allOrNothing,
+                            Map<String, SuiteCalendar> bySuite, boolean[] conflicts) {
+        boolean rejected = false;
+        for (int i = 0; i < reservations.size(); i++) {
+            Booking booking = bookingOf(reservations.get(i));
+            SuiteCalendar calendar = bySuite.get(reservations.get(i).getSuiteId());
+            if (calendar.overlaps(booking.start(), booking.end())) {
+                conflicts[i] = true;
+                rejected = true;
+            } else {
+                calendar.add(booking);
+            }
+        }
+        if (rejected && allOrNothing) {
+            for (int i = 0; i < reservations.size(); i++) {
+                if (!conflicts[i]) {
+                    bySuite.get(reservations.get(i).getSuiteId()).remove(reservations.get(i).getId());
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < reservations.size(); i++) {
+            if (!conflicts[i]) {
+                Booking booking = bookingOf(reservations.get(i));
+                availabilityIndex.mark(reservations.get(i).getSuiteId(), booking.start(), booking.end());
+            }
+        }
+    }
+
+    // Registrar una reservación en el calendario
+    public boolean add(Reservation reservation) {
+        return add(reservation, true);
+    }
+
+    private boolean add(Reservation reservation, boolean publish) {
+        if (!isComplete(reservation)) {
+            logger.warn("Skipping reservation {} without suite or dates", reservation.getId());
+            return false;
+        }
+        SuiteCalendar calendar = calendars.computeIfAbsent(reservation.getSuiteId(), id -> new SuiteCalendar());
+        calendar.lock();
+        try {
+            Booking booking = bookingOf(reservation);
+            Booking previous = calendar.add(booking);
+            if (publish) {
+                publish(reservation.getSuiteId(), calendar, previous, booking);
+            }
+        } finally {
+            calendar.unlock();
+        }
+        return true;
+    }
+
+    // Cambiar las fechas registradas de una reservación solo si las nuevas no se traslapan con otra reservación
+    // de la misma suite; la propia reservación no cuenta como traslape. La verificación y el cambio son atómicos.
+    public boolean tryUpdate(Reservation reservation) {
+        if (!isComplete(reservation)) {
+            throw new IllegalArgumentException("La reservación debe tener ID, suite y fechas");
+        }
+        Booking booking = bookingOf(reservation);
+        SuiteCalendar calendar = calendars.computeIfAbsent(reservation.getSuiteId(), id -> new SuiteCalendar());
+        calendar.lock();
+        try {
+            if (calendar.overlapsOthers(booking)) {
+                return false;
+            }
+            publish(reservation.getSuiteId(), calendar, calendar.add(booking), booking);
+        } finally {
+            calendar.unlock();
+        }
+        return true;
+    }
+
+    // Reemplazar las fechas registradas de una reservación sin verificar traslapes
+    public void update(Reservation reservation) {
+        add(reservation);
+    }
+
+    // Quitar una reservación de la que solo se conoce el ID, buscándola en el calendario de cada suite
+    public void removeById(String reservationId) {
+        for (Map.Entry<String, SuiteCalendar> entry : calendars.entrySet()) {
+            SuiteCalendar calendar = entry.getValue();
+            calendar.lock();
+            try {
+                Booking removed = calendar.remove(reservationId);
+                if (removed != null) {
+                    release(entry.getKey(), calendar, removed);
+                    return;
+                }
+            } finally {
+                calendar.unlock();
+            }
+        }
+    }
+
+    // Reemplazar el calendario de cada suite por las reservaciones guardadas en Mongo, suite por suite
+    // bajo su candado; a diferencia de load(), nunca queda una suite sin calendario mientras se recarga.
+    // pending son fechas reclamadas que todavía no están en Mongo (bloqueos temporales) y se conservan.
+    public void resync(Collection<Reservation> pending) {
+        Map<String, List<Booking>> stored = new HashMap<>();
+        List<Reservation> reservations = new ArrayList<>(reservationRepository.findAll());
+        reservations.addAll(pending);
+        for (Reservation reservation : reservations) {
+            if (isComplete(reservation)) {
+                stored.computeIfAbsent(reservation.getSuiteId(), id -> new ArrayList<>()).add(bookingOf(reservation));
+            }
+        }
+        Set<String> suiteIds = new HashSet<>(calendars.keySet());
+        suiteIds.addAll(stored.keySet());
+        for (String suiteId : suiteIds) {
+            SuiteCalendar calendar = calendars.computeIfAbsent(suiteId, id -> new SuiteCalendar());
+            calendar.lock();
+            try {
+                calendar.replace(stored.getOrDefault(suiteId, List.of()));
+                availabilityIndex.setBookings(suiteId, calendar.ranges());
+            } finally {
+                calendar.unlock();
+            }
+        }
+        logger.info("Booking calendar resynchronized for {} suites", suiteIds.size());
+    }
+
+    // Quitar una reservación del calendario
+    public void remove(Reservation reservation) {
+        String suiteId = reservation.getSuiteId();
+        if (suiteId == null || reservation.getId() == null) {
+            return;
+        }
+        SuiteCalendar calendar = calendars.get(suiteId);
+        if (calendar != null) {
+            calendar.lock();
+            try {
+                Booking removed = calendar.remove(reservation.getId());
+                if (removed != null) {
+                    release(suiteId, calendar, removed);
+                }
+            } finally {
+                calendar.unlock();
+            }
+        }
+    }
+
+    // Publicar el cambio de fechas de una reservación: primero se marcan las nuevas y después se liberan las
+    // anteriores que ya no cubre, así un día que sigue ocupado nunca se ve libre. Se llama con el candado tomado.
+    private void publish(String suiteId, SuiteCalendar calendar, Booking previous, Booking booking) {
+        availabilityIndex.mark(suiteId, booking.start(), booking.end());
+        if (previous != null) {
+            release(suiteId, calendar, previous);
+        }
+    }
+
+    // Liberar en el índice los días de una reservación que ya no cubre ninguna otra; se llama con el candado tomado
+    private void release(String suiteId, SuiteCalendar calendar, Booking booking) {
+        for (long[] range : calendar.uncovered(booking.start(), booking.end())) {
+            availabilityIndex.clear(suiteId, range[0], range[1]);
+        }
+    }
+
+    private static boolean isComplete(Reservation reservation) {
+        return reservation.getSuiteId() != null && reservation.getId() != null
+                && reservation.getCheckInDate() != null && reservation.getCheckOutDate() != null;
+    }
+
+    private static Booking bookingOf(Reservation reservation) {
+        return new Booking(reservation.getId(),
+                reservation.getCheckInDate().toEpochDay(),
+                reservation.getCheckOutDate().toEpochDay());
+    }
+
+    private record Booking(String reservationId, long start, long end) {}
+
+    // Reservaciones de una suite ordenadas por fecha de entrada; el candado de cada instancia
+    // serializa los cambios de esa suite y su publicación al índice de disponibilidad, y debe
+    // tomarse antes de llamar a cualquiera de sus métodos. Es un ReentrantLock y no un monitor para
+    // que esperar el candado del índice no fije el hilo virtual a su hilo portador.
+    // Mientras no se traslapen entre sí, la última reservación que inicia antes del fin del rango
+    // consultado es la única candidata a traslape, así que la búsqueda es O(log n).
+    private static final class SuiteCalendar {
+        private static final Comparator<Booking> ORDER = Comparator
+                .comparingLong(Booking::start)
+                .thenComparing(Booking::reservationId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final NavigableSet<Booking> bookings = new TreeSet<>(ORDER);
+        private final Map<String, Booking> byReservationId = new HashMap<>();
+        // Datos antiguos pueden contener traslapes; en ese caso se recorre el rango completo
+        private boolean disjoint = true;
+
+        void lock() {
+            lock.lock();
+        }
+
+        void unlock() {
+            lock.unlock();
+        }
+
+        boolean overlaps(long start, long end) {
+            Booking probe = new Booking(null, end, end);
+            if (disjoint) {
+                Booking candidate = bookings.floor(probe);
+                return candidate != null && candidate.end() >= start;
+            }
+            for (Booking booking : bookings.headSet(probe, true)) {
+                if (booking.end() >= start) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Igual que overlaps, sin contar la reservación de la misma ID
+        boolean overlapsOthers(Booking booking) {
+            Booking current = byReservationId.get(booking.reservationId());
+            if (current != null) {
+                bookings.remove(current);
+            }
+            try {
+                return overlaps(booking.start(), booking.end());
+            } finally {
+                if (current != null) {
+                    bookings.add(current);
+                }
+            }
+        }
+
+        // Registrar la reservación, reemplazando sus fechas anteriores si ya estaba registrada; devuelve las
+        // fechas anteriores o null
+        Booking add(Booking booking) {
+            Booking previous = byReservationId.remove(booking.reservationId());
+            if (previous != null) {
+                bookings.remove(previous);
+            }
+            if (disjoint && overlaps(booking.start(), booking.end())) {
+                disjoint = false;
+            }
+            bookings.add(booking);
+            byReservationId.put(booking.reservationId(), booking);
+            return previous;
+        }
+
+        // Quitar la reservación y devolver sus fechas, o null si no estaba registrada
+        Booking remove(String reservationId) {
+            Booking booking = byReservationId.remove(reservationId);
+            if (booking != null) {
+                bookings.remove(booking);
+            }
+            return booking;
+        }
+
+        // Descartar las reservaciones que terminaron antes del día dado
+        void prune(long today) {
+            Iterator<Booking> iterator = bookings.headSet(new Booking(null, today, today), true).iterator();
+            while (iterator.hasNext()) {
+                Booking booking = iterator.next();
+                if (booking.end() < today) {
+                    iterator.remove();
+                    byReservationId.remove(booking.reservationId());
+                }
+            }
+        }
+
+        // Tramos de [start, end] que no cubre ninguna reservación. Mientras no se traslapen entre sí, solo
+        // pueden cubrirlo la última reservación que inicia antes del rango y las que inician dentro de él.
+        List<long[]> uncovered(long start, long end) {
+            NavigableSet<Booking> candidates = bookings.headSet(new Booking(null, end, end), true);
+            Booking first = disjoint ? candidates.floor(new Booking(null, start, start)) : null;
+            if (first != null) {
+                candidates = candidates.tailSet(first, true);
+            }
+            List<long[]> free = new ArrayList<>();
+            long next = start;
+            for (Booking booking : candidates) {
+                if (booking.end() < next) {
+                    continue;
+                }
+                if (booking.start() > next) {
+                    free.add(new long[] {next, booking.start() - 1});
+                }
+                next = booking.end() + 1;
+                if (next > end) {
+                    return free;
+                }
+            }
+            free.add(new long[] {next, end});
+            return free;
+        }
+
+        void replace(List<Booking> stored) {
+            bookings.clear();
+            byReservationId.clear();
+            disjoint = true;
+            stored.forEach(this::add);
+        }
+
+        List<long[]> ranges() {
+            List<long[]> ranges = new ArrayList<>(bookings.size());
+            for (Booking booking : bookings) {
+                ranges.add(new long[] {booking.start(), booking.end()});
+            }
+            return ranges;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.Customer;
+import com.hotelreservation.model.RateRange;
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.model.Suite;
+import com.mongodb.CursorType;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Coherencia de las cachés en memoria entre instancias.
+// Cada instancia sigue los cambios de las colecciones de suites, clientes y reservaciones, incluidos los
+// hechos por otras instancias, y actualiza o invalida LookupCache, el índice de disponibilidad, el calendario
+// de reservaciones, el de tarifas y la versión del catálogo. Los cambios llegan por change streams ("change-stream") o,
+// donde no estén disponibles, leyendo el oplog con un cursor tailable ("oplog"); ambos requieren un replica
+// set, aunque sea de un solo nodo. Con "none" cada instancia solo ve sus propias escrituras y las cachés no
+// vencen, así que ese modo es para una sola instancia.
+// Si la suscripción se pierde, los cambios de ese intervalo no se conocen: al reconectar se recargan todas
+// las cachés desde Mongo.
+@Component
+public class CacheCoherence {
+    private static final Logger logger = LoggerFactory.getLogger(CacheCoherence.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final LookupCache lookupCache;
+    private final AvailabilityIndex availabilityIndex;
+    private final BookingCalendar bookingCalendar;
+    private final ReservationHolds reservationHolds;
+    private final CatalogVersion catalogVersion;
+    private final RateCalendar rateCalendar;
+    private final String mode;
+    private final Duration retryDelay;
+    private final Counter events;
+    private final Map<String, Class<?>> typesByCollection;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean running;
+    private volatile boolean connected;
+    private DefaultMessageListenerContainer container;
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    @Autowired
+    public CacheCoherence(
+            MongoTemplate mongoTemplate,
+            LookupCache lookupCache,
+            AvailabilityIndex availabilityIndex,
+            BookingCalendar bookingCalendar,
+            Optional<ReservationHolds> reservationHolds,
+            CatalogVersion catalogVersion,
+            RateCalendar rateCalendar,
+            MeterRegistry meterRegistry,
+            @Value("${hotel.cache.coherence.mode:none}") String mode,
+            @Value("${hotel.cache.coherence.retry-delay:5s}") Duration retryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.lookupCache = lookupCache;
+        this.availabilityIndex = availabilityIndex;
+        this.bookingCalendar = bookingCalendar;
+        // Los bloqueos no existen en el perfil "reactive"
+        this.reservationHolds = reservationHolds.orElse(null);
+        this.catalogVersion = catalogVersion;
+        this.rateCalendar = rateCalendar;
+        this.mode = mode;
+        this.retryDelay = retryDelay;
+        this.events = meterRegistry.counter("hotel.cache.coherence.events");
+        this.typesByCollection = Map.of(
+                mongoTemplate.getCollectionName(Suite.class), Suite.class,
+                mongoTemplate.getCollectionName(Customer.class), Customer.class,
+                mongoTemplate.getCollectionName(Reservation.class), Reservation.class,
+                mongoTemplate.getCollectionName(RateRange.class), RateRange.class,
+                CatalogVersion.COLLECTION, CatalogVersion.class);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        switch (mode) {
+            case "none" -> {
+                logger.info("Cache coherence disabled; in-memory caches only see this instance's writes");
+                return;
+            }
+            case "change-stream" -> subscribe();
+            case "oplog" -> executor.execute(this::tailOplog);
+            default -> throw new IllegalStateException("Unknown hotel.cache.coherence.mode: " + mode);
+        }
+        running = true;
+        logger.info("Cache coherence following {} for {}", mode, typesByCollection.keySet());
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (container != null) {
+            container.stop();
+        }
+        executor.shutdownNow();
+    }
+
+    // Volver a suscribirse si algún change stream terminó (error de red, elección de primario, colección
+    // eliminada); los cambios perdidos mientras tanto se cubren recargando las cachés
+    @Scheduled(fixedDelayString = "${hotel.cache.coherence.check-interval-ms:5000}")
+    public synchronized void checkSubscriptions() {
+        if (!running || !mode.equals("change-stream") || subscriptions.stream().allMatch(Subscription::isActive)) {
+            return;
+        }
+        logger.warn("Change stream subscription lost; resubscribing and reloading caches");
+        container.stop();
+        subscribe();
+        resync();
+    }
+
+    private void subscribe() {
+        subscriptions.clear();
+        container = new DefaultMessageListenerContainer(mongoTemplate, executor,
+                error -> logger.warn("Change stream failed: {}", error.getMessage()));
+        for (String collection : typesByCollection.keySet()) {
+            ChangeStreamRequest<Document> request = ChangeStreamRequest.builder(this::onChange)
+                    .collection(collection)
+                    .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                    .build();
+            subscriptions.add(container.register(request, Document.class));
+        }
+        container.start();
+    }
+
+    private void onChange(Message<ChangeStreamDocument<Document>, Document> message) {
+        ChangeStreamDocument<Document> change = message.getRaw();
+        if (change == null || change.getOperationType() == null) {
+            return;
+        }
+        String collection = change.getNamespace() == null
+                ? message.getProperties().getCollectionName()
+                : change.getNamespace().getCollectionName();
+        switch (change.getOperationType()) {
+            case INSERT, UPDATE, REPLACE ->
+                    apply(collection, idOf(change.getDocumentKey().get("_id")), change.getFullDocument());
+            case DELETE -> apply(collection, idOf(change.getDocumentKey().get("_id")), null);
+            // Colección eliminada o renombrada: el stream termina y checkSubscriptions lo restablece
+            default -> logger.warn("Change stream on {} ended with {}", collection, change.getOperationType());
+        }
+    }
+
+    // Seguir el oplog desde su última entrada; cada actualización se resuelve leyendo el documento actual,
+    // igual que UPDATE_LOOKUP en los change streams
+    private void tailOplog() {
+        String database = mongoTemplate.getDb().getName();
+        MongoCollection<Document> oplog = mongoTemplate.getMongoDatabaseFactory()
+                .getMongoDatabase("local").getCollection("oplog.rs");
+        List<String> namespaces = typesByCollection.keySet().stream().map(name -> database + "." + name).toList();
+        BsonTimestamp last = null;
+        while (running) {
+            try {
+                if (last == null) {
+                    Document newest = oplog.find().sort(Sorts.descending("$natural")).limit(1).first();
+                    last = newest == null ? new BsonTimestamp() : newest.get("ts", BsonTimestamp.class);
+                } else if (!connected) {
+                    resync();
+                }
+                connected = true;
+                try (MongoCursor<Document> cursor = oplog
+                        .find(Filters.and(Filters.gt("ts", last), Filters.in("ns", namespaces)))
+                        .cursorType(CursorType.TailableAwait)
+                        .noCursorTimeout(true)
+                        .iterator()) {
+                    while (running && cursor.hasNext()) {
+                        Document entry = cursor.next();
+                        last = entry.get("ts", BsonTimestamp.class);
+                        applyOplog(entry);
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                connected = false;
+                logger.warn("Oplog tailing failed, retrying in {}: {}", retryDelay, e.getMessage());
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void applyOplog(Document entry) {
+        String collection = entry.getString("ns").substring(entry.getString("ns").indexOf('.') + 1);
+        Document change = entry.get("o", Document.class);
+        switch (entry.getString("op")) {
+            case "i" -> apply(collection, idOf(change.get("_id")), change);
+            case "u" -> {
+                Object id = entry.get("o2", Document.class).get("_id");
+                Document current = mongoTemplate.getCollection(collection).find(Filters.eq("_id", id)).first();
+                apply(collection, idOf(id), current);
+            }
+            case "d" -> apply(collection, idOf(change.get("_id")), null);
+            default -> resync();
+        }
+    }
+
+    // Aplicar un cambio a las cachés locales; document es null si el documento ya no existe.
+    // Las escrituras de esta misma instancia también llegan aquí y se aplican otra vez sin efecto.
+    private void apply(String collection, String id, Document document) {
+        Class<?> type = typesByCollection.get(collection);
+        if (type == null || id == null) {
+            return;
+        }
+        events.increment();
+        if (type == Suite.class) {
+            lookupCache.evictSuite(id);
+            if (document == null) {
+                availabilityIndex.removeSuite(id);
+            } else {
+                availabilityIndex.putSuite(mongoTemplate.getConverter().read(Suite.class, document));
+            }
+        } else if (type == CatalogVersion.class) {
+            // La instancia que cambió el catálogo incrementa la versión compartida después de escribir
+            if (document != null) {
+                catalogVersion.advance(document);
+            }
+        } else if (type == Customer.class) {
+            lookupCache.evictCustomer(id);
+        } else if (type == RateRange.class) {
+            // Los rangos solo se agregan; si uno se borra, el calendario se vuelve a calcular completo
+            if (document == null) {
+                rateCalendar.reload();
+            } else {
+                rateCalendar.applyAll(List.of(mongoTemplate.getConverter().read(RateRange.class, document)));
+            }
+        } else if (document == null) {
+            bookingCalendar.removeById(id);
+        } else {
+            bookingCalendar.add(mongoTemplate.getConverter().read(Reservation.class, document));
+        }
+    }
+
+    // Recargar todo lo que pudo cambiar mientras no se recibían cambios
+    private void resync() {
+        lookupCache.invalidateAll();
+        availabilityIndex.load();
+        bookingCalendar.resync(reservationHolds != null ? reservationHolds.active() : List.of());
+        rateCalendar.reload();
+        catalogVersion.refresh();
+    }
+
+    private static String idOf(Object id) {
+        if (id instanceof BsonValue value) {
+            return value.isObjectId() ? value.asObjectId().getValue().toHexString()
+                    : value.isString() ? value.asString().getValue() : null;
+        }
+        if (id instanceof ObjectId objectId) {
+            return objectId.toHexString();
+        }
+        return id == null ? null : id.toString();
+    }
+}
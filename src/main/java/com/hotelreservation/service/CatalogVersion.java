@@ -0,0 +1,65 @@
+package com.hotelreservation.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versión del catálogo de suites: cambia con cada alta, cambio o baja de una suite, así que dos respuestas
+// del catálogo con la misma versión son idénticas. El contador vive en un documento de Mongo que todas las
+// instancias incrementan después de escribir en el catálogo, así que un ETag significa lo mismo en cualquier
+// instancia y un reinicio no reutiliza ETags ya emitidos. Cada instancia conserva el último valor que conoce;
+// CacheCoherence lo adelanta cuando otra instancia incrementa el contador.
+@Component
+public class CatalogVersion {
+    static final String COLLECTION = "catalogVersion";
+    private static final String ID = "suites";
+
+    private final MongoTemplate mongoTemplate;
+    private final AtomicLong version = new AtomicLong();
+
+    @Autowired
+    public CatalogVersion(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Leer el valor compartido actual
+    @PostConstruct
+    public void refresh() {
+        Document current = collection().find(Filters.eq("_id", ID)).first();
+        if (current != null) {
+            advance(current);
+        }
+    }
+
+    // Incrementar el valor compartido
+    public void bump() {
+        advance(collection().findOneAndUpdate(Filters.eq("_id", ID), Updates.inc("version", 1L),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER)));
+    }
+
+    // Adoptar el valor de un documento de versión recibido de Mongo; la versión local nunca retrocede
+    public void advance(Document document) {
+        Number seen = document.get("version", Number.class);
+        if (seen != null) {
+            version.accumulateAndGet(seen.longValue(), Math::max);
+        }
+    }
+
+    // ETag fuerte de la versión actual; debe leerse antes de consultar el catálogo, nunca después
+    public String etag() {
+        return "\"" + version.get() + "\"";
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(COLLECTION);
+    }
+}
@@ -1,21 +1,36 @@
 package com.hotelreservation.service;
 
+import com.hotelreservation.dto.CursorPage;
 import com.hotelreservation.model.Customer;
 import com.hotelreservation.repository.CustomerRepository;
+import com.hotelreservation.repository.VersionedUpdates;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "hotel.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final LookupCache lookupCache;
+    private final VersionedUpdates versionedUpdates;
 
     @Autowired
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository, LookupCache lookupCache,
+                           VersionedUpdates versionedUpdates) {
         this.customerRepository = customerRepository;
+        this.lookupCache = lookupCache;
+        this.versionedUpdates = versionedUpdates;
     }
 
     // Obtener todos los clientes
@@ -23,14 +38,35 @@ public class CustomerService {
         return customerRepository.findAll();
     }
 
+    // Obtener una página de clientes ordenada por ID
+    public CursorPage<Customer> getCustomersPage(String cursor, Integer size) {
+        int pageSize = PageCursor.pageSize(size);
+        PageRequest request = PageRequest.of(0, pageSize + 1, Sort.by("id"));
+        List<Customer> fetched = cursor == null
+                ? customerRepository.findAllBy(request)
+                : customerRepository.findByIdGreaterThan(PageCursor.decode(cursor, "id", 1)[0], request);
+        return PageCursor.page(fetched, pageSize, item -> PageCursor.encode("id", item.getId()));
+    }
+
+    // Recorrer todos los clientes sin cargarlos en memoria; el llamador debe cerrar el stream
+    public Stream<Customer> streamCustomers() {
+        return customerRepository.streamAllBy();
+    }
+
     // Obtener un cliente por ID
     public Optional<Customer> getCustomerById(String id) {
-        return customerRepository.findById(id);
+        return lookupCache.getCustomer(id, customerRepository::findById);
+    }
+
+    // Obtener varios clientes por ID, indexados por ID; los que no existen se omiten
+    public Map<String, Customer> getCustomersById(Set<String> ids) {
+        return lookupCache.getCustomers(ids, customerRepository::findAllById);
     }
 
     // Obtener un cliente por email
     public Optional<Customer> getCustomerByEmail(String email) {
-        return Optional.ofNullable(customerRepository.findByEmail(email));
+        return lookupCache.getCustomerByEmail(email,
+                key -> Optional.ofNullable(customerRepository.findByEmail(key)));
     }
 
     // Crear un nuevo cliente
@@ -39,26 +75,31 @@ public class CustomerService {
         if (customerRepository.existsByEmail(customer.getEmail())) {
             throw new RuntimeException("El email ya está registrado");
         }
+        customer.setVersion(null);
         return customerRepository.save(customer);
     }
 
-    // Actualizar un cliente existente
+    // Actualizar un cliente existente; si customerDetails trae versión, debe ser la vigente
     public Customer updateCustomer(String id, Customer customerDetails) {
-        return customerRepository.findById(id)
-                .map(existingCustomer -> {
-                    existingCustomer.setName(customerDetails.getName());
-                    existingCustomer.setEmail(customerDetails.getEmail());
-                    existingCustomer.setPhoneNumber(customerDetails.getPhoneNumber());
-                    return customerRepository.save(existingCustomer);
-                })
+        VersionedUpdates.Change<Customer> change = versionedUpdates.update(Customer.class, id, Customer::getVersion,
+                        existingCustomer -> {
+                            VersionedUpdates.requireVersion(
+                                    customerDetails.getVersion(), existingCustomer.getVersion(), id);
+                            return new Update()
+                                    .set("name", customerDetails.getName())
+                                    .set("email", customerDetails.getEmail())
+                                    .set("phoneNumber", customerDetails.getPhoneNumber());
+                        })
                 .orElseThrow(() -> new RuntimeException("Cliente no encontrado con id: " + id));
+        lookupCache.putCustomer(change.before().getEmail(), change.after());
+        return change.after();
     }
 
     // Eliminar un cliente
     public void deleteCustomer(String id) {
-        if (!customerRepository.existsById(id)) {
-            throw new RuntimeException("Cliente no encontrado con id: " + id);
-        }
+        Customer customer = customerRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Cliente no encontrado con id: " + id));
         customerRepository.deleteById(id);
+        lookupCache.evictCustomer(id, customer.getEmail());
     }
 }
\ No newline at end of file
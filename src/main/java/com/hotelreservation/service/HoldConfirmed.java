@@ -0,0 +1,5 @@
+package com.hotelreservation.service;
+
+// Evento: un bloqueo se confirmó y quedó guardado como la reservación con el mismo ID
+public record HoldConfirmed(String holdId) {
+}
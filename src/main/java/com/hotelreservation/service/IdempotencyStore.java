@@ -0,0 +1,19 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.IdempotencyRecord;
+
+import java.util.Optional;
+
+// Almacén de llaves de idempotencia. La implementación en memoria es la predeterminada;
+// con hotel.idempotency.store=mongo las llaves se comparten entre instancias y sobreviven reinicios.
+public interface IdempotencyStore {
+
+    // Tomar la llave para una solicitud nueva; si ya estaba tomada devuelve el registro existente sin cambiarlo
+    Optional<IdempotencyRecord> claim(String key, String fingerprint);
+
+    // Guardar la respuesta de la solicitud que tomó la llave
+    void complete(String key, int status, String contentType, byte[] body);
+
+    // Liberar la llave para que un reintento vuelva a ejecutar la solicitud
+    void release(String key);
+}
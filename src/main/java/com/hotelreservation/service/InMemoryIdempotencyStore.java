@@ -0,0 +1,58 @@
+package com.hotelreservation.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotelreservation.model.IdempotencyRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Llaves de idempotencia en una caché acotada por tamaño y por tiempo desde que se tomaron
+@Component
+@ConditionalOnProperty(name = "hotel.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Cache<String, IdempotencyRecord> records;
+
+    @Autowired
+    public InMemoryIdempotencyStore(
+            MeterRegistry meterRegistry,
+            @Value("${hotel.idempotency.maximum-size:100000}") long maximumSize,
+            @Value("${hotel.idempotency.ttl:24h}") Duration ttl) {
+        this.records = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, records, "idempotency");
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> claim(String key, String fingerprint) {
+        return Optional.ofNullable(records.asMap().putIfAbsent(key, new IdempotencyRecord(key, fingerprint)));
+    }
+
+    // Se reemplaza el registro completo para que los lectores nunca vean una respuesta a medio escribir
+    @Override
+    public void complete(String key, int status, String contentType, byte[] body) {
+        records.asMap().computeIfPresent(key, (id, claimed) -> {
+            IdempotencyRecord completed = new IdempotencyRecord(id, claimed.getFingerprint());
+            completed.setCreatedAt(claimed.getCreatedAt());
+            completed.setStatus(status);
+            completed.setContentType(contentType);
+            completed.setBody(body);
+            completed.setCompleted(true);
+            return completed;
+        });
+    }
+
+    @Override
+    public void release(String key) {
+        records.invalidate(key);
+    }
+}
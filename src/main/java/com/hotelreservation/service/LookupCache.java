@@ -0,0 +1,174 @@
+package com.hotelreservation.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotelreservation.model.Customer;
+import com.hotelreservation.model.Suite;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Caché en memoria de suites por ID y de clientes por ID y por email, delante de Mongo.
+// Está acotada por tamaño y por tiempo de escritura; los servicios la actualizan o invalidan en cada
+// escritura. Los cambios hechos por otras instancias llegan por CacheCoherence cuando está activa;
+// si no, solo los cubre la expiración.
+// Hits, misses y evictions se publican como métricas cache.* de Micrometer.
+// Las cargas se ejecutan en el hilo que consulta y fuera de cualquier candado de la caché: las consultas
+// concurrentes por la misma llave esperan el mismo futuro sin fijar hilos virtuales durante la consulta a Mongo,
+// y una invalidación durante la carga descarta el valor cargado.
+@Component
+public class LookupCache {
+    private final AsyncCache<String, Suite> suitesById;
+    private final AsyncCache<String, Customer> customersById;
+    private final AsyncCache<String, Customer> customersByEmail;
+
+    @Autowired
+    public LookupCache(
+            MeterRegistry meterRegistry,
+            @Value("${hotel.cache.suites.maximum-size:10000}") long suitesMaximumSize,
+            @Value("${hotel.cache.customers.maximum-size:50000}") long customersMaximumSize,
+            @Value("${hotel.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.suitesById = build(suitesMaximumSize, expireAfterWrite);
+        this.customersById = build(customersMaximumSize, expireAfterWrite);
+        this.customersByEmail = build(customersMaximumSize, expireAfterWrite);
+        CaffeineCacheMetrics.monitor(meterRegistry, suitesById, "suites");
+        CaffeineCacheMetrics.monitor(meterRegistry, customersById, "customers");
+        CaffeineCacheMetrics.monitor(meterRegistry, customersByEmail, "customersByEmail");
+    }
+
+    // Obtener una suite, consultando el loader solo si no está en caché; los resultados vacíos no se guardan
+    public Optional<Suite> getSuite(String id, Function<String, Optional<Suite>> loader) {
+        return get(suitesById, id, loader);
+    }
+
+    // Obtener varias suites; las que faltan se cargan con una sola llamada al loader
+    public Map<String, Suite> getSuites(Set<String> ids, Function<Set<String>, List<Suite>> loader) {
+        return getAll(suitesById, ids, loader, Suite::getId);
+    }
+
+    public void putSuite(Suite suite) {
+        suitesById.put(suite.getId(), CompletableFuture.completedFuture(suite));
+    }
+
+    public void evictSuite(String id) {
+        suitesById.synchronous().invalidate(id);
+    }
+
+    public Optional<Customer> getCustomer(String id, Function<String, Optional<Customer>> loader) {
+        return get(customersById, id, loader);
+    }
+
+    public Optional<Customer> getCustomerByEmail(String email, Function<String, Optional<Customer>> loader) {
+        return get(customersByEmail, email, loader);
+    }
+
+    public Map<String, Customer> getCustomers(Set<String> ids, Function<Set<String>, List<Customer>> loader) {
+        return getAll(customersById, ids, loader, Customer::getId);
+    }
+
+    // Variantes no bloqueantes para los servicios reactivos; comparten las mismas entradas
+    public CompletableFuture<Map<String, Suite>> getSuitesAsync(
+            Set<String> ids, Function<Set<String>, CompletableFuture<List<Suite>>> loader) {
+        return getAllAsync(suitesById, ids, loader, Suite::getId);
+    }
+
+    public CompletableFuture<Map<String, Customer>> getCustomersAsync(
+            Set<String> ids, Function<Set<String>, CompletableFuture<List<Customer>>> loader) {
+        return getAllAsync(customersById, ids, loader, Customer::getId);
+    }
+
+    public CompletableFuture<Optional<Customer>> getCustomerByEmailAsync(
+            String email, Function<String, CompletableFuture<Optional<Customer>>> loader) {
+        return getAsync(customersByEmail, email, loader);
+    }
+
+    // Guardar el cliente actualizado; las entradas por email se invalidan en lugar de reemplazarse
+    // porque el email pudo haber cambiado
+    public void putCustomer(String previousEmail, Customer customer) {
+        evictEmail(previousEmail);
+        evictEmail(customer.getEmail());
+        customersById.put(customer.getId(), CompletableFuture.completedFuture(customer));
+    }
+
+    public void evictCustomer(String id, String email) {
+        customersById.synchronous().invalidate(id);
+        evictEmail(email);
+    }
+
+    // Invalidar un cliente del que solo se conoce el ID: las entradas por email se buscan por valor
+    public void evictCustomer(String id) {
+        customersById.synchronous().invalidate(id);
+        customersByEmail.synchronous().asMap().values().removeIf(customer -> id.equals(customer.getId()));
+    }
+
+    public void invalidateAll() {
+        suitesById.synchronous().invalidateAll();
+        customersById.synchronous().invalidateAll();
+        customersByEmail.synchronous().invalidateAll();
+    }
+
+    private void evictEmail(String email) {
+        if (email != null) {
+            customersByEmail.synchronous().invalidate(email);
+        }
+    }
+
+    // La carga masiva de Caffeine invoca la función fuera de sus candados, así que una llave
+    // individual también se carga por esa vía. Los resultados vacíos no se guardan.
+    private static <V> Optional<V> get(
+            AsyncCache<String, V> cache, String key, Function<String, Optional<V>> loader) {
+        return join(getAsync(cache, key, missing -> CompletableFuture.completedFuture(loader.apply(missing))));
+    }
+
+    private static <V> Map<String, V> getAll(AsyncCache<String, V> cache, Set<String> keys,
+                                             Function<Set<String>, List<V>> loader, Function<V, String> keyOf) {
+        return join(getAllAsync(cache, keys, missing -> CompletableFuture.completedFuture(loader.apply(missing)), keyOf));
+    }
+
+    private static <V> CompletableFuture<Optional<V>> getAsync(
+            AsyncCache<String, V> cache, String key, Function<String, CompletableFuture<Optional<V>>> loader) {
+        return cache.getAll(Set.of(key), (missing, executor) -> loader.apply(key)
+                        .thenApply(value -> value.map(found -> Map.of(key, found)).orElseGet(Map::of)))
+                .thenApply(found -> Optional.ofNullable(found.get(key)));
+    }
+
+    private static <V> CompletableFuture<Map<String, V>> getAllAsync(
+            AsyncCache<String, V> cache, Set<String> keys,
+            Function<Set<String>, CompletableFuture<List<V>>> loader, Function<V, String> keyOf) {
+        return cache.getAll(keys, (missing, executor) -> loader.apply(new HashSet<>(missing))
+                .thenApply(values -> values.stream().collect(Collectors.toMap(keyOf, Function.identity()))));
+    }
+
+    // Propagar el error de una carga hecha por otro hilo tal como lo lanzó el repositorio
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static <V> AsyncCache<String, V> build(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+}
@@ -0,0 +1,92 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.IdempotencyRecord;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+// Llaves de idempotencia en Mongo, compartidas entre instancias. La llave es el _id, así que tomarla es
+// un insert que falla si otra instancia ya la tomó; un índice TTL elimina los registros cuando vence
+// hotel.idempotency.ttl, la misma vigencia que usa InMemoryIdempotencyStore.
+@Component
+@ConditionalOnProperty(name = "hotel.idempotency.store", havingValue = "mongo")
+public class MongoIdempotencyStore implements IdempotencyStore {
+    private static final Logger logger = LoggerFactory.getLogger(MongoIdempotencyStore.class);
+    private static final String CREATED_AT = "createdAt";
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration ttl;
+
+    @Autowired
+    public MongoIdempotencyStore(
+            MongoTemplate mongoTemplate,
+            @Value("${hotel.idempotency.ttl:24h}") Duration ttl) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = ttl;
+    }
+
+    // Crear el índice TTL, o ajustar su vigencia con collMod si ya existe con otra
+    @PostConstruct
+    public void ensureTtlIndex() {
+        IndexOperations indexOps = mongoTemplate.indexOps(IdempotencyRecord.class);
+        IndexInfo existing = indexOps.getIndexInfo().stream()
+                .filter(index -> index.isIndexForFields(List.of(CREATED_AT)))
+                .findFirst()
+                .orElse(null);
+        if (existing == null) {
+            indexOps.ensureIndex(new Index().on(CREATED_AT, Sort.Direction.ASC).expire(ttl));
+            return;
+        }
+        if (existing.getExpireAfter().filter(ttl::equals).isPresent()) {
+            return;
+        }
+        mongoTemplate.executeCommand(new Document("collMod", mongoTemplate.getCollectionName(IdempotencyRecord.class))
+                .append("index", new Document("name", existing.getName())
+                        .append("expireAfterSeconds", ttl.toSeconds())));
+        logger.info("Idempotency TTL index {} now expires records after {}", existing.getName(), ttl);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> claim(String key, String fingerprint) {
+        try {
+            mongoTemplate.insert(new IdempotencyRecord(key, fingerprint));
+            return Optional.empty();
+        } catch (DuplicateKeyException e) {
+            // Si el registro expiró entre el insert y la lectura se trata como llave libre ocupada por otro
+            return Optional.of(Optional.ofNullable(mongoTemplate.findById(key, IdempotencyRecord.class))
+                    .orElseGet(() -> new IdempotencyRecord(key, fingerprint)));
+        }
+    }
+
+    @Override
+    public void complete(String key, int status, String contentType, byte[] body) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(key)), new Update()
+                .set("status", status)
+                .set("contentType", contentType)
+                .set("body", body)
+                .set("completed", true), IdempotencyRecord.class);
+    }
+
+    @Override
+    public void release(String key) {
+        mongoTemplate.remove(Query.query(Criteria.where("id").is(key)), IdempotencyRecord.class);
+    }
+}
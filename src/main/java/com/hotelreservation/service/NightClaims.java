@@ -0,0 +1,245 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.NightClaim;
+import com.hotelreservation.model.Reservation;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Reclamos por día en Mongo que impiden guardar dos reservaciones traslapadas de una misma suite.
+// El calendario en memoria decide por instancia; si varias instancias comparten la base de datos, cada una
+// puede aceptar las mismas fechas antes de conocer la escritura de la otra. Antes de guardar una reservación
+// se inserta un NightClaim por cada día que cubre (ambos extremos inclusivos, igual que el calendario), y el
+// índice único de _id hace que solo una de las dos lo consiga; la otra recibe un conflicto.
+// Un reclamo cuya reservación ya no existe o ya no cubre ese día (una instancia que cayó entre el reclamo y
+// la escritura, o un borrado que falló) se considera abandonado pasado hotel.booking.claims.grace y se
+// reasigna. Al arrancar se reclaman los días futuros de las reservaciones existentes.
+@Component
+@DependsOn("reservationReferenceMigration")
+public class NightClaims {
+    private static final Logger logger = LoggerFactory.getLogger(NightClaims.class);
+    private static final int DUPLICATE_KEY = 11000;
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Duration grace;
+    // Spring Data guarda las LocalDate como medianoche en la zona del sistema
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Autowired
+    public NightClaims(
+            MongoTemplate mongoTemplate,
+            @Value("${hotel.booking.claims.enabled:true}") boolean enabled,
+            @Value("${hotel.booking.claims.grace:1m}") Duration grace) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.grace = grace;
+    }
+
+    // Reclamar los días futuros de las reservaciones guardadas; los días ya reclamados no se tocan
+    @PostConstruct
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        Date now = new Date();
+        int claimed = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NightClaim.class);
+        int pending = 0;
+        try (Stream<Reservation> reservations = mongoTemplate.stream(
+                Query.query(Criteria.where("checkOutDate").gte(today)), Reservation.class)) {
+            for (Reservation reservation : (Iterable<Reservation>) reservations::iterator) {
+                if (reservation.getSuiteId() == null || reservation.getCheckInDate() == null) {
+                    continue;
+                }
+                LocalDate from = reservation.getCheckInDate().isBefore(today) ? today : reservation.getCheckInDate();
+                for (LocalDate day = from; !day.isAfter(reservation.getCheckOutDate()); day = day.plusDays(1)) {
+                    NightClaim claim = claimOf(reservation.getSuiteId(), reservation.getId(), day, now);
+                    bulk.upsert(Query.query(Criteria.where("_id").is(claim.getId())), new Update()
+                            .setOnInsert("suiteId", claim.getSuiteId())
+                            .setOnInsert("day", claim.getDay())
+                            .setOnInsert("reservationId", claim.getReservationId())
+                            .setOnInsert("claimedAt", claim.getClaimedAt())
+                            .setOnInsert("expiresAt", claim.getExpiresAt()));
+                    if (++pending == BACKFILL_BATCH_SIZE) {
+                        claimed += bulk.execute().getUpserts().size();
+                        bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NightClaim.class);
+                        pending = 0;
+                    }
+                }
+            }
+        }
+        if (pending > 0) {
+            claimed += bulk.execute().getUpserts().size();
+        }
+        logger.info("Night claims backfilled: {} days claimed", claimed);
+    }
+
+    // Reclamar todos los días de una reservación; false si alguno pertenece a otra reservación.
+    // Si no se puede reclamar completa, se liberan los días que sí se alcanzaron a reclamar.
+    public boolean claim(Reservation reservation) {
+        return claim(reservation, null, null);
+    }
+
+    // Reclamar los días de una reservación que quedan fuera de [keptFrom, keptTo], que ya son suyos
+    public boolean claim(Reservation reservation, LocalDate keptFrom, LocalDate keptTo) {
+        if (!enabled) {
+            return true;
+        }
+        List<NightClaim> claims = new ArrayList<>();
+        Date now = new Date();
+        for (LocalDate day : days(reservation.getCheckInDate(), reservation.getCheckOutDate(), keptFrom, keptTo)) {
+            claims.add(claimOf(reservation.getSuiteId(), reservation.getId(), day, now));
+        }
+        if (claims.isEmpty()) {
+            return true;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NightClaim.class).insert(claims).execute();
+            return true;
+        } catch (BulkOperationException e) {
+            Set<String> acquired = new HashSet<>();
+            claims.forEach(claim -> acquired.add(claim.getId()));
+            List<NightClaim> taken = new ArrayList<>();
+            for (BulkWriteError error : e.getErrors()) {
+                taken.add(claims.get(error.getIndex()));
+            }
+            taken.forEach(claim -> acquired.remove(claim.getId()));
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                release(reservation.getId(), acquired);
+                throw e;
+            }
+            boolean conflict = false;
+            for (NightClaim claim : taken) {
+                if (!takeOver(claim, reservation.getId(), now, acquired)) {
+                    conflict = true;
+                }
+            }
+            if (conflict) {
+                release(reservation.getId(), acquired);
+                logger.warn("Suite {} dates {} - {} already claimed by another reservation",
+                        reservation.getSuiteId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+            }
+            return !conflict;
+        }
+    }
+
+    // Liberar todos los días reclamados por una reservación. Si el borrado falla, los reclamos quedan
+    // abandonados y se reasignan pasado el periodo de gracia, así que el error solo se registra.
+    public void release(Reservation reservation) {
+        if (enabled) {
+            remove(reservation.getId(), Query.query(Criteria.where("reservationId").is(reservation.getId())));
+        }
+    }
+
+    // Liberar los días de [from, to] que quedan fuera de [keptFrom, keptTo]
+    public void release(Reservation reservation, LocalDate from, LocalDate to, LocalDate keptFrom, LocalDate keptTo) {
+        if (!enabled) {
+            return;
+        }
+        Set<String> ids = new HashSet<>();
+        for (LocalDate day : days(from, to, keptFrom, keptTo)) {
+            ids.add(NightClaim.idOf(reservation.getSuiteId(), day));
+        }
+        release(reservation.getId(), ids);
+    }
+
+    private void release(String reservationId, Set<String> ids) {
+        if (!ids.isEmpty()) {
+            remove(reservationId, Query.query(Criteria.where("_id").in(ids).and("reservationId").is(reservationId)));
+        }
+    }
+
+    private void remove(String reservationId, Query query) {
+        try {
+            mongoTemplate.remove(query, NightClaim.class);
+        } catch (RuntimeException e) {
+            logger.warn("Could not release night claims of reservation {}: {}", reservationId, e.getMessage());
+        }
+    }
+
+    // Quedarse con un día ya reclamado si el reclamo es de la misma reservación o está abandonado; los días
+    // que se escriben para la reservación se agregan a acquired
+    private boolean takeOver(NightClaim claimed, String reservationId, Date now, Set<String> acquired) {
+        String id = claimed.getId();
+        NightClaim current = mongoTemplate.findById(id, NightClaim.class);
+        if (current == null) {
+            // El otro reclamo se liberó mientras tanto; se vuelve a intentar una sola vez
+            try {
+                mongoTemplate.insert(claimOf(claimed.getSuiteId(), reservationId, claimed.getDay(), now));
+                acquired.add(id);
+                return true;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        }
+        if (reservationId.equals(current.getReservationId())) {
+            return true;
+        }
+        if (current.getClaimedAt() != null && current.getClaimedAt().after(new Date(now.getTime() - grace.toMillis()))) {
+            return false;
+        }
+        boolean held = mongoTemplate.exists(Query.query(Criteria.where("_id").is(current.getReservationId())
+                .and("suiteId").is(current.getSuiteId())
+                .and("checkInDate").lte(current.getDay())
+                .and("checkOutDate").gte(current.getDay())), Reservation.class);
+        if (held) {
+            return false;
+        }
+        logger.warn("Taking over abandoned claim {} of reservation {}", id, current.getReservationId());
+        boolean taken = mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)
+                        .and("reservationId").is(current.getReservationId())),
+                new Update().set("reservationId", reservationId).set("claimedAt", now), NightClaim.class)
+                .getModifiedCount() == 1;
+        if (taken) {
+            acquired.add(id);
+        }
+        return taken;
+    }
+
+    private NightClaim claimOf(String suiteId, String reservationId, LocalDate day, Date now) {
+        NightClaim claim = new NightClaim();
+        claim.setId(NightClaim.idOf(suiteId, day));
+        claim.setSuiteId(suiteId);
+        claim.setDay(day);
+        claim.setReservationId(reservationId);
+        claim.setClaimedAt(now);
+        claim.setExpiresAt(Date.from(day.plusDays(1).atStartOfDay(zone).toInstant()));
+        return claim;
+    }
+
+    // Días de [from, to] que quedan fuera de [keptFrom, keptTo]; sin rango conservado, todos
+    private static List<LocalDate> days(LocalDate from, LocalDate to, LocalDate keptFrom, LocalDate keptTo) {
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (keptFrom == null || day.isBefore(keptFrom) || day.isAfter(keptTo)) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+}
@@ -0,0 +1,35 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.Reservation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Evento: fechas de una suite que dejaron de estar reservadas o bloqueadas. holdId es el bloqueo liberado o
+// vencido, o null si las noches eran de una reservación.
+public record NightsFreed(String suiteId, String suiteType, LocalDate checkInDate, LocalDate checkOutDate,
+                          String holdId) {
+
+    // Noches que deja libres una reservación cancelada
+    static NightsFreed cancelled(Reservation reservation) {
+        return new NightsFreed(reservation.getSuiteId(), reservation.getSuiteType(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate(), null);
+    }
+
+    // Noches de las fechas anteriores que las actuales ya no cubren: a lo sumo un tramo antes y otro después
+    static List<NightsFreed> rescheduled(Reservation reservation, LocalDate previousCheckIn, LocalDate previousCheckOut) {
+        LocalDate checkIn = reservation.getCheckInDate();
+        LocalDate checkOut = reservation.getCheckOutDate();
+        List<NightsFreed> freed = new ArrayList<>(2);
+        LocalDate before = checkIn.isBefore(previousCheckOut) ? checkIn : previousCheckOut;
+        if (previousCheckIn.isBefore(before)) {
+            freed.add(new NightsFreed(reservation.getSuiteId(), reservation.getSuiteType(), previousCheckIn, before, null));
+        }
+        LocalDate after = checkOut.isAfter(previousCheckIn) ? checkOut : previousCheckIn;
+        if (after.isBefore(previousCheckOut)) {
+            freed.add(new NightsFreed(reservation.getSuiteId(), reservation.getSuiteType(), after, previousCheckOut, null));
+        }
+        return freed;
+    }
+}
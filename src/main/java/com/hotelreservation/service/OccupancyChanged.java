@@ -0,0 +1,12 @@
+package com.hotelreservation.service;
+
+import java.time.LocalDate;
+
+// Evento: cambiaron las noches vendidas de los días entre dos fechas, ambas inclusivas
+public record OccupancyChanged(LocalDate from, LocalDate to) {
+
+    // Todos los días, después de una reconstrucción completa de los contadores
+    public static OccupancyChanged all() {
+        return new OccupancyChanged(LocalDate.MIN, LocalDate.MAX);
+    }
+}
@@ -0,0 +1,222 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.DailyOccupancy;
+import com.hotelreservation.model.Reservation;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Contadores diarios de noches vendidas e ingresos por tipo de suite, guardados en Mongo.
+// Se ajustan con incrementos y decrementos sobre los días de cada reservación al crearla, moverla o cancelarla,
+// así que consultar la ocupación de un rango cuesta O(días) y no O(reservaciones). Una reconstrucción completa
+// desde las reservaciones corre al arrancar si no hay contadores y después de forma periódica; corrige cualquier
+// desviación, aunque una reservación escrita mientras corre puede quedar mal contada hasta la siguiente.
+// Cada cambio publica OccupancyChanged con los días afectados, aunque los contadores estén deshabilitados,
+// para que los reportes en caché de esos días se descarten.
+@Component
+public class OccupancyCounters {
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyCounters.class);
+    static final String UNKNOWN_TYPE = "unknown";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher events;
+    private final boolean enabled;
+    // Spring Data guarda las LocalDate como medianoche en la zona del sistema
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Autowired
+    public OccupancyCounters(
+            MongoTemplate mongoTemplate,
+            ApplicationEventPublisher events,
+            @Value("${hotel.analytics.counters.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.events = events;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Sumar las noches de reservaciones nuevas
+    public void add(Collection<Reservation> reservations) {
+        Map<String, Delta> deltas = new HashMap<>();
+        reservations.forEach(reservation -> collect(deltas, reservation,
+                reservation.getCheckInDate(), reservation.getCheckOutDate(), 1));
+        apply(deltas);
+    }
+
+    // Restar las noches de una reservación cancelada
+    public void remove(Reservation reservation) {
+        Map<String, Delta> deltas = new HashMap<>();
+        collect(deltas, reservation, reservation.getCheckInDate(), reservation.getCheckOutDate(), -1);
+        apply(deltas);
+    }
+
+    // Mover las noches de una reservación de sus fechas anteriores a las actuales; los días comunes se compensan
+    public void reschedule(Reservation reservation, LocalDate previousCheckIn, LocalDate previousCheckOut) {
+        Map<String, Delta> deltas = new HashMap<>();
+        collect(deltas, reservation, previousCheckIn, previousCheckOut, -1);
+        collect(deltas, reservation, reservation.getCheckInDate(), reservation.getCheckOutDate(), 1);
+        apply(deltas);
+    }
+
+    // Contadores de los días entre dos fechas, ambas inclusivas
+    public List<DailyOccupancy> find(LocalDate from, LocalDate to) {
+        return mongoTemplate.find(Query.query(Criteria.where("day").gte(from).lte(to)), DailyOccupancy.class);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (enabled && mongoTemplate.estimatedCount(DailyOccupancy.class) == 0) {
+            rebuild();
+        }
+    }
+
+    // Recalcular todos los contadores desde las reservaciones con un pipeline que escribe el resultado
+    // directamente en la colección de contadores; los que ya no tienen reservaciones se eliminan
+    @Scheduled(cron = "${hotel.analytics.counters.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Date stamp = new Date(started);
+        String timezone = zone.getId();
+        String countersCollection = mongoTemplate.getCollectionName(DailyOccupancy.class);
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("checkInDate", new Document("$type", "date"))
+                        .append("checkOutDate", new Document("$type", "date"))),
+                // Una fila por noche de cada reservación
+                new Document("$project", new Document("suiteType", new Document("$ifNull", List.of("$suiteType", UNKNOWN_TYPE)))
+                        .append("suitePrice", 1)
+                        .append("checkInDate", 1)
+                        .append("night", new Document("$range", List.of(0, new Document("$dateDiff",
+                                new Document("startDate", "$checkInDate").append("endDate", "$checkOutDate")
+                                        .append("unit", "day").append("timezone", timezone)))))),
+                new Document("$unwind", "$night"),
+                new Document("$group", new Document("_id", new Document("day", new Document("$dateAdd",
+                        new Document("startDate", "$checkInDate").append("unit", "day")
+                                .append("amount", "$night").append("timezone", timezone)))
+                        .append("suiteType", "$suiteType"))
+                        .append("nights", new Document("$sum", 1))
+                        .append("revenue", new Document("$sum", "$suitePrice"))),
+                new Document("$project", new Document("_id", new Document("$concat", List.of(
+                        new Document("$dateToString", new Document("date", "$_id.day")
+                                .append("format", "%Y-%m-%d").append("timezone", timezone)),
+                        "|", "$_id.suiteType")))
+                        .append("day", "$_id.day")
+                        .append("suiteType", "$_id.suiteType")
+                        .append("nights", 1)
+                        .append("revenue", 1)
+                        .append("rebuiltAt", stamp)),
+                new Document("$merge", new Document("into", countersCollection)
+                        .append("on", "_id")
+                        .append("whenMatched", "replace")
+                        .append("whenNotMatched", "insert")));
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Reservation.class))
+                .aggregate(pipeline)
+                .toCollection();
+        long removed = mongoTemplate.remove(Query.query(Criteria.where("rebuiltAt").lt(stamp)), DailyOccupancy.class)
+                .getDeletedCount();
+        logger.info("Occupancy counters rebuilt in {} ms, {} stale counters removed",
+                System.currentTimeMillis() - started, removed);
+        events.publishEvent(OccupancyChanged.all());
+    }
+
+    // Acumular el cambio de cada día de la estancia; la noche del día de salida no se cuenta
+    private static void collect(Map<String, Delta> deltas, Reservation reservation,
+                                LocalDate checkIn, LocalDate checkOut, int sign) {
+        if (checkIn == null || checkOut == null) {
+            return;
+        }
+        String type = reservation.getSuiteType() == null ? UNKNOWN_TYPE : reservation.getSuiteType();
+        for (LocalDate day = checkIn; day.isBefore(checkOut); day = day.plusDays(1)) {
+            deltas.computeIfAbsent(DailyOccupancy.idOf(day, type), id -> new Delta(id))
+                    .add(sign, sign * reservation.getSuitePrice());
+        }
+    }
+
+    // Escribir todos los cambios con una sola operación bulk. Un error no debe revertir la reservación:
+    // se registra y la siguiente reconstrucción corrige los contadores.
+    private void apply(Map<String, Delta> deltas) {
+        deltas.values().removeIf(Delta::isEmpty);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        publishChanged(deltas.values());
+        if (!enabled) {
+            return;
+        }
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DailyOccupancy.class);
+            Date now = new Date();
+            for (Delta delta : deltas.values()) {
+                String[] key = delta.id.split("\\|", 2);
+                bulk.upsert(Query.query(Criteria.where("id").is(delta.id)), new Update()
+                        .inc("nights", delta.nights)
+                        .inc("revenue", delta.revenue)
+                        .setOnInsert("day", LocalDate.parse(key[0]))
+                        .setOnInsert("suiteType", key[1])
+                        .setOnInsert("rebuiltAt", now));
+            }
+            bulk.execute();
+        } catch (RuntimeException e) {
+            logger.warn("Could not update occupancy counters for {} days: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    private void publishChanged(Collection<Delta> deltas) {
+        LocalDate from = LocalDate.MAX;
+        LocalDate to = LocalDate.MIN;
+        for (Delta delta : deltas) {
+            LocalDate day = delta.day();
+            from = day.isBefore(from) ? day : from;
+            to = day.isAfter(to) ? day : to;
+        }
+        events.publishEvent(new OccupancyChanged(from, to));
+    }
+
+    private static final class Delta {
+        private final String id;
+        private long nights;
+        private double revenue;
+
+        private Delta(String id) {
+            this.id = id;
+        }
+
+        void add(long nights, double revenue) {
+            this.nights += nights;
+            this.revenue += revenue;
+        }
+
+        LocalDate day() {
+            return LocalDate.parse(id.substring(0, id.indexOf('|')));
+        }
+
+        boolean isEmpty() {
+            return nights == 0 && revenue == 0;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.dto.CursorPage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Codificación de cursores de paginación por llave (keyset).
+// El cliente recibe un token opaco con los valores de la última fila entregada y el orden usado.
+final class PageCursor {
+    static final int DEFAULT_SIZE = 100;
+    static final int MAX_SIZE = 1000;
+
+    private static final char SEPARATOR = '\n';
+
+    private PageCursor() {}
+
+    static String encode(String sort, String... values) {
+        String raw = sort + SEPARATOR + String.join(String.valueOf(SEPARATOR), values);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Devuelve los valores del cursor; falla si el token no corresponde al orden solicitado
+    static String[] decode(String cursor, String sort, int valueCount) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(String.valueOf(SEPARATOR), -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (parts.length != valueCount + 1 || !parts[0].equals(sort)) {
+            throw new IllegalArgumentException("Cursor inválido para el orden " + sort);
+        }
+        String[] values = new String[valueCount];
+        System.arraycopy(parts, 1, values, 0, valueCount);
+        return values;
+    }
+
+    // Se consulta un elemento extra para saber si existe una página siguiente
+    static <T> CursorPage<T> page(List<T> fetched, int size, Function<T, String> cursorOf) {
+        if (fetched.size() <= size) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)));
+    }
+
+    static int pageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_SIZE);
+        }
+        return size;
+    }
+}
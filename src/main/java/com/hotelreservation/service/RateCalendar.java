@@ -0,0 +1,191 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.dto.StayQuote;
+import com.hotelreservation.model.RateRange;
+import com.hotelreservation.model.Suite;
+import com.hotelreservation.repository.RateRangeRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Calendario de tarifas por noche sobre el horizonte de reservas, en memoria.
+// Cada tipo de suite y cada suite con tarifa propia tiene un arreglo de precios por día (NaN donde no hay
+// tarifa) y dos sumas prefijas: la suma de las noches con tarifa y el número de noches sin ella. Así el total
+// de una estancia en una suite que solo usa la tarifa de su tipo se obtiene en O(1) restando prefijos,
+// completando las noches sin tarifa con Suite.price; las suites con tarifa propia se recorren noche por noche.
+// Los arreglos no se modifican una vez publicados: cada escritura copia los que cambia y publica otra ventana,
+// así que las cotizaciones no toman candados.
+@Component
+public class RateCalendar {
+    private static final Logger logger = LoggerFactory.getLogger(RateCalendar.class);
+
+    private final RateRangeRepository rateRangeRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final int horizonDays;
+    private final int maxBatchSize;
+    private volatile Window window;
+
+    @Autowired
+    public RateCalendar(
+            RateRangeRepository rateRangeRepository,
+            AvailabilityIndex availabilityIndex,
+            @Value("${hotel.availability.horizon-days:366}") int horizonDays,
+            @Value("${hotel.rates.batch.max-size:1000}") int maxBatchSize) {
+        this.rateRangeRepository = rateRangeRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.horizonDays = horizonDays;
+        this.maxBatchSize = maxBatchSize;
+        this.window = new Window(LocalDate.now().toEpochDay(), Map.of(), Map.of());
+    }
+
+    // Cargar los rangos vigentes; también recorre el horizonte al cambiar el día
+    @PostConstruct
+    @Scheduled(cron = "${hotel.availability.reindex-cron:0 0 0 * * *}")
+    public synchronized void reload() {
+        LocalDate today = LocalDate.now();
+        List<RateRange> ranges = rateRangeRepository.findByLastNightGreaterThanEqualOrderByIdAsc(today);
+        window = apply(new Window(today.toEpochDay(), Map.of(), Map.of()), ranges);
+        logger.info("Rate calendar loaded with {} ranges over {} days", ranges.size(), horizonDays);
+    }
+
+    // Guardar un lote de rangos con una sola escritura y aplicarlo en memoria
+    public List<RateRange> addRanges(List<RateRange> ranges) {
+        if (ranges.isEmpty() || ranges.size() > maxBatchSize) {
+            throw new IllegalArgumentException("El lote debe tener entre 1 y " + maxBatchSize + " rangos");
+        }
+        for (RateRange range : ranges) {
+            validate(range);
+            range.setId(null);
+        }
+        List<RateRange> saved = rateRangeRepository.insert(ranges);
+        applyAll(saved);
+        return saved;
+    }
+
+    // Aplicar rangos ya guardados, por ejemplo los escritos por otra instancia
+    public synchronized void applyAll(List<RateRange> ranges) {
+        window = apply(window, ranges);
+    }
+
+    // Cotizar una estancia (noches de checkIn a checkOut - 1) en cada suite libre del tipo, de menor a mayor total
+    public List<StayQuote> quote(LocalDate checkIn, LocalDate checkOut, String type) {
+        if (!checkIn.isBefore(checkOut)) {
+            throw new IllegalArgumentException("La fecha de entrada debe ser anterior a la fecha de salida");
+        }
+        Window current = window;
+        int first = (int) (checkIn.toEpochDay() - current.start());
+        int end = (int) (checkOut.toEpochDay() - current.start());
+        if (first < 0 || end > horizonDays) {
+            throw new IllegalArgumentException("Las fechas deben caer dentro del horizonte de tarifas");
+        }
+        List<Suite> candidates = availabilityIndex.findAvailable(checkIn, checkOut, type, null, null)
+                .orElseThrow(() -> new IllegalArgumentException("Las fechas deben caer dentro del horizonte de tarifas"));
+
+        int nights = end - first;
+        List<StayQuote> quotes = new ArrayList<>(candidates.size());
+        for (Suite suite : candidates) {
+            Rates ofType = suite.getType() == null ? null : current.byType().get(suite.getType());
+            Rates ofSuite = current.bySuite().get(suite.getId());
+            double total;
+            if (ofSuite != null) {
+                total = 0;
+                for (int day = first; day < end; day++) {
+                    double price = ofSuite.nightly()[day];
+                    if (Double.isNaN(price) && ofType != null) {
+                        price = ofType.nightly()[day];
+                    }
+                    total += Double.isNaN(price) ? suite.getPrice() : price;
+                }
+            } else if (ofType != null) {
+                total = ofType.ratedSum()[end] - ofType.ratedSum()[first]
+                        + (ofType.unrated()[end] - ofType.unrated()[first]) * suite.getPrice();
+            } else {
+                total = nights * suite.getPrice();
+            }
+            quotes.add(new StayQuote(suite.getId(), suite.getType(), checkIn, checkOut, nights, total));
+        }
+        quotes.sort(Comparator.comparingDouble(StayQuote::getTotal));
+        return quotes;
+    }
+
+    // Copiar solo los arreglos que el lote toca, escribir los rangos en orden y recalcular sus prefijos
+    private Window apply(Window base, List<RateRange> ranges) {
+        Map<String, double[]> touchedTypes = new HashMap<>();
+        Map<String, double[]> touchedSuites = new HashMap<>();
+        for (RateRange range : ranges) {
+            int first = (int) Math.max(0, range.getFirstNight().toEpochDay() - base.start());
+            int last = (int) Math.min(horizonDays - 1, range.getLastNight().toEpochDay() - base.start());
+            if (first > last) {
+                continue;
+            }
+            double[] nightly = range.getSuiteId() != null
+                    ? touchedSuites.computeIfAbsent(range.getSuiteId(), id -> nightlyCopy(base.bySuite().get(id)))
+                    : touchedTypes.computeIfAbsent(range.getType(), type -> nightlyCopy(base.byType().get(type)));
+            Arrays.fill(nightly, first, last + 1, range.getPrice());
+        }
+        if (touchedTypes.isEmpty() && touchedSuites.isEmpty()) {
+            return base;
+        }
+        return new Window(base.start(), merge(base.byType(), touchedTypes), merge(base.bySuite(), touchedSuites));
+    }
+
+    private double[] nightlyCopy(Rates rates) {
+        if (rates != null) {
+            return rates.nightly().clone();
+        }
+        double[] nightly = new double[horizonDays];
+        Arrays.fill(nightly, Double.NaN);
+        return nightly;
+    }
+
+    private static Map<String, Rates> merge(Map<String, Rates> base, Map<String, double[]> touched) {
+        if (touched.isEmpty()) {
+            return base;
+        }
+        Map<String, Rates> merged = new HashMap<>(base);
+        touched.forEach((key, nightly) -> merged.put(key, Rates.of(nightly)));
+        return Map.copyOf(merged);
+    }
+
+    private static void validate(RateRange range) {
+        if ((range.getSuiteId() == null) == (range.getType() == null)) {
+            throw new IllegalArgumentException("Cada rango debe indicar una suite o un tipo de suite, no ambos");
+        }
+        if (range.getFirstNight() == null || range.getLastNight() == null
+                || range.getFirstNight().isAfter(range.getLastNight())) {
+            throw new IllegalArgumentException("La primera noche debe ser anterior o igual a la última");
+        }
+        if (!Double.isFinite(range.getPrice()) || range.getPrice() < 0) {
+            throw new IllegalArgumentException("El precio debe ser un número no negativo");
+        }
+    }
+
+    // Ventana de tarifas publicada; start es el día epoch de la posición 0 de los arreglos
+    private record Window(long start, Map<String, Rates> byType, Map<String, Rates> bySuite) {}
+
+    // ratedSum[i] y unrated[i] acumulan las posiciones 0..i-1: suma de precios y número de noches sin tarifa
+    private record Rates(double[] nightly, double[] ratedSum, int[] unrated) {
+        static Rates of(double[] nightly) {
+            double[] ratedSum = new double[nightly.length + 1];
+            int[] unrated = new int[nightly.length + 1];
+            for (int day = 0; day < nightly.length; day++) {
+                boolean rated = !Double.isNaN(nightly[day]);
+                ratedSum[day + 1] = ratedSum[day] + (rated ? nightly[day] : 0);
+                unrated[day + 1] = unrated[day] + (rated ? 0 : 1);
+            }
+            return new Rates(nightly, ratedSum, unrated);
+        }
+    }
+}
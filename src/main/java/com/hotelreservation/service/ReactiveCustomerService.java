@@ -0,0 +1,92 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.Customer;
+import com.hotelreservation.repository.ReactiveCustomerRepository;
+import com.hotelreservation.repository.ReactiveVersionedUpdates;
+import com.hotelreservation.repository.VersionedUpdates;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Versión no bloqueante de CustomerService para el perfil "reactive"; comparte la caché de consultas
+@Service
+@Profile("reactive")
+public class ReactiveCustomerService {
+
+    private final ReactiveCustomerRepository customerRepository;
+    private final LookupCache lookupCache;
+    private final ReactiveVersionedUpdates versionedUpdates;
+
+    @Autowired
+    public ReactiveCustomerService(
+            ReactiveCustomerRepository customerRepository,
+            LookupCache lookupCache,
+            ReactiveVersionedUpdates versionedUpdates) {
+        this.customerRepository = customerRepository;
+        this.lookupCache = lookupCache;
+        this.versionedUpdates = versionedUpdates;
+    }
+
+    // Obtener todos los clientes; el flujo respeta la demanda del suscriptor
+    public Flux<Customer> getAllCustomers() {
+        return customerRepository.findAll();
+    }
+
+    // Obtener un cliente por ID
+    public Mono<Customer> getCustomerById(String id) {
+        return getCustomersById(Set.of(id)).mapNotNull(customers -> customers.get(id));
+    }
+
+    // Obtener varios clientes por ID, indexados por ID; los que no existen se omiten
+    public Mono<Map<String, Customer>> getCustomersById(Set<String> ids) {
+        return Mono.fromFuture(() -> lookupCache.getCustomersAsync(ids,
+                missing -> customerRepository.findAllById(missing).collectList().toFuture()), true);
+    }
+
+    // Obtener un cliente por email
+    public Mono<Customer> getCustomerByEmail(String email) {
+        return Mono.fromFuture(() -> lookupCache.getCustomerByEmailAsync(email,
+                        key -> customerRepository.findByEmail(key).map(Optional::of)
+                                .defaultIfEmpty(Optional.empty()).toFuture()), true)
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    // Crear un nuevo cliente
+    public Mono<Customer> createCustomer(Customer customer) {
+        customer.setVersion(null);
+        // Verificar si el email ya existe
+        return customerRepository.existsByEmail(customer.getEmail())
+                .flatMap(exists -> exists
+                        ? Mono.error(new RuntimeException("El email ya está registrado"))
+                        : customerRepository.save(customer));
+    }
+
+    // Actualizar un cliente existente; si customerDetails trae versión, debe ser la vigente
+    public Mono<Customer> updateCustomer(String id, Customer customerDetails) {
+        return versionedUpdates.update(Customer.class, id, Customer::getVersion, existingCustomer -> {
+                    VersionedUpdates.requireVersion(customerDetails.getVersion(), existingCustomer.getVersion(), id);
+                    return new Update()
+                            .set("name", customerDetails.getName())
+                            .set("email", customerDetails.getEmail())
+                            .set("phoneNumber", customerDetails.getPhoneNumber());
+                })
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Cliente no encontrado con id: " + id)))
+                .doOnNext(change -> lookupCache.putCustomer(change.before().getEmail(), change.after()))
+                .map(VersionedUpdates.Change::after);
+    }
+
+    // Eliminar un cliente
+    public Mono<Void> deleteCustomer(String id) {
+        return customerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Cliente no encontrado con id: " + id)))
+                .flatMap(customer -> customerRepository.deleteById(id)
+                        .then(Mono.fromRunnable(() -> lookupCache.evictCustomer(id, customer.getEmail()))));
+    }
+}
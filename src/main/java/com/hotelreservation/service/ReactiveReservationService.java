@@ -0,0 +1,291 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.journal.BookingJournal;
+import com.hotelreservation.model.Customer;
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.model.Suite;
+import com.hotelreservation.repository.ReactiveReservationRepository;
+import com.hotelreservation.repository.ReactiveVersionedUpdates;
+import com.hotelreservation.repository.VersionedUpdates;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+// Versión no bloqueante de ReservationService para el perfil "reactive".
+// Usa el mismo calendario en memoria, las mismas validaciones y las mismas métricas que la versión bloqueante.
+// Cada escritura en Mongo se anota también en el BookingJournal. Este perfil no tiene bloqueos ni lista de
+// espera, así que no publica NightsFreed.
+@Service
+@Profile("reactive")
+public class ReactiveReservationService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveReservationService.class);
+    // Reservaciones cuyas referencias se resuelven juntas al recorrer un listado
+    private static final int RESOLVE_BATCH_SIZE = 500;
+
+    private final ReactiveReservationRepository reservationRepository;
+    private final ReactiveCustomerService customerService;
+    private final ReactiveSuiteService suiteService;
+    private final BookingCalendar bookingCalendar;
+    private final ReservationMetrics metrics;
+    private final OccupancyCounters occupancyCounters;
+    private final ReactiveVersionedUpdates versionedUpdates;
+    private final BookingJournal journal;
+    private final NightClaims nightClaims;
+
+    @Autowired
+    public ReactiveReservationService(
+            ReactiveReservationRepository reservationRepository,
+            ReactiveCustomerService customerService,
+            ReactiveSuiteService suiteService,
+            BookingCalendar bookingCalendar,
+            ReservationMetrics metrics,
+            OccupancyCounters occupancyCounters,
+            ReactiveVersionedUpdates versionedUpdates,
+            BookingJournal journal,
+            NightClaims nightClaims) {
+        this.reservationRepository = reservationRepository;
+        this.customerService = customerService;
+        this.suiteService = suiteService;
+        this.bookingCalendar = bookingCalendar;
+        this.metrics = metrics;
+        this.occupancyCounters = occupancyCounters;
+        this.versionedUpdates = versionedUpdates;
+        this.journal = journal;
+        this.nightClaims = nightClaims;
+    }
+
+    // Obtener todas las reservaciones
+    public Flux<Reservation> getAllReservations() {
+        return resolveReferences(reservationRepository.findAll());
+    }
+
+    // Recorrer todas las reservaciones con la copia de datos del cliente y la suite, sin resolver referencias
+    public Flux<Reservation> streamReservations() {
+        return reservationRepository.findAll();
+    }
+
+    // Obtener una reservación por ID
+    public Mono<Reservation> getReservationById(String id) {
+        return resolveReferences(reservationRepository.findById(id).flux()).next();
+    }
+
+    // Obtener reservaciones por cliente
+    public Flux<Reservation> getReservationsByCustomer(String customerId) {
+        return resolveReferences(reservationRepository.findByCustomerId(customerId));
+    }
+
+    // Obtener reservaciones por suite
+    public Flux<Reservation> getReservationsBySuite(String suiteId) {
+        return resolveReferences(reservationRepository.findBySuiteId(suiteId));
+    }
+
+    // Obtener reservaciones activas
+    public Flux<Reservation> getActiveReservations() {
+        return resolveReferences(reservationRepository.findByCheckOutDateAfter(LocalDate.now()));
+    }
+
+    // Obtener reservaciones por rango de fechas
+    public Flux<Reservation> getReservationsByDateRange(LocalDate startDate, LocalDate endDate) {
+        return resolveReferences(reservationRepository
+                .findByCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqual(endDate, startDate));
+    }
+
+    // Resolver clientes y suites por lotes; cada lote hace a lo sumo una consulta $in por colección
+    private Flux<Reservation> resolveReferences(Flux<Reservation> reservations) {
+        return reservations.buffer(RESOLVE_BATCH_SIZE).concatMap(batch -> {
+            Set<String> customerIds = new HashSet<>();
+            Set<String> suiteIds = new HashSet<>();
+            for (Reservation reservation : batch) {
+                if (reservation.getCustomerId() != null) {
+                    customerIds.add(reservation.getCustomerId());
+                }
+                if (reservation.getSuiteId() != null) {
+                    suiteIds.add(reservation.getSuiteId());
+                }
+            }
+            return Mono.zip(customerService.getCustomersById(customerIds), suiteService.getSuitesById(suiteIds))
+                    .flatMapIterable(found -> {
+                        Map<String, Customer> customers = found.getT1();
+                        Map<String, Suite> suites = found.getT2();
+                        for (Reservation reservation : batch) {
+                            reservation.setCustomer(customers.get(reservation.getCustomerId()));
+                            reservation.setSuite(suites.get(reservation.getSuiteId()));
+                        }
+                        return batch;
+                    });
+        });
+    }
+
+    // Crear una nueva reservación. El cliente y la suite se consultan en paralelo, pero los errores
+    // conservan el mismo orden de precedencia que en la versión bloqueante.
+    public Mono<Reservation> createReservation(Reservation reservation) {
+        Mono<Optional<Customer>> customer = Mono.justOrEmpty(reservation.getCustomerId())
+                .flatMap(customerService::getCustomerById)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+        Mono<Optional<Suite>> suite = Mono.justOrEmpty(reservation.getSuiteId())
+                .flatMap(suiteService::getSuiteById)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+        return Mono.zip(customer, suite)
+                .flatMap(found -> create(reservation, found.getT1().orElse(null), found.getT2().orElse(null)));
+    }
+
+    private Mono<Reservation> create(Reservation reservation, Customer customer, Suite suite) {
+        ReservationRejection rejection = ReservationRejection.check(reservation, customer, suite, LocalDate.now());
+        if (rejection != null) {
+            logger.error("Reservation rejected for customer {} and suite {}: {}",
+                    reservation.getCustomerId(), reservation.getSuiteId(), rejection.getMessage());
+            return Mono.error(metrics.reject(rejection));
+        }
+
+        // Claim the dates in the in-memory calendar; the check and the claim are atomic per suite
+        reservation.setId(new ObjectId().toHexString());
+        ReservationService.snapshot(reservation, customer, suite);
+        if (!bookingCalendar.tryReserve(reservation)) {
+            logger.error("Suite {} is already booked for dates {} - {}",
+                    suite.getId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+            return Mono.error(metrics.conflict());
+        }
+
+        // Claim the nights in Mongo too, since another instance may have accepted the same dates.
+        // The write runs to completion even if the client disconnects, so the claimed dates
+        // are either persisted or released and never left dangling in the calendar
+        Mono<Reservation> write = claimNights(() -> nightClaims.claim(reservation))
+                .doOnError(e -> bookingCalendar.remove(reservation))
+                .flatMap(claimed -> {
+                    if (!claimed) {
+                        logger.error("Suite {} is already booked for dates {} - {} by another instance",
+                                suite.getId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+                        bookingCalendar.remove(reservation);
+                        return Mono.error(metrics.conflict());
+                    }
+                    return reservationRepository.insert(reservation)
+                            .onErrorResume(e -> afterWrite(() -> {
+                                bookingCalendar.remove(reservation);
+                                nightClaims.release(reservation);
+                            }).then(Mono.error(e)));
+                })
+                .doOnNext(savedReservation -> {
+                    logger.info("Reservation created successfully with ID: {}", savedReservation.getId());
+                    metrics.created(1);
+                })
+                .flatMap(savedReservation -> afterWrite(() -> {
+                            journal.created(savedReservation);
+                            occupancyCounters.add(List.of(savedReservation));
+                        }).thenReturn(savedReservation));
+        return Mono.fromFuture(write.toFuture(), true);
+    }
+
+    // Actualizar las fechas de una reservación existente, sin contar a la propia reservación como traslape.
+    // Solo se escriben las fechas, y solo si nadie cambió la reservación desde que se leyó; si otro escritor
+    // ganó, se vuelve a leer y se reintenta hasta hotel.concurrency.max-attempts veces.
+    public Mono<Reservation> updateReservation(String id, Reservation reservationDetails) {
+        return Mono.defer(() -> reservationRepository.findById(id))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Reservación no encontrada con id: " + id)))
+                .flatMap(existingReservation -> {
+                    // Validar fechas
+                    if (reservationDetails.getCheckInDate().isAfter(reservationDetails.getCheckOutDate())) {
+                        return Mono.error(new RuntimeException("La fecha de entrada debe ser anterior a la fecha de salida"));
+                    }
+                    VersionedUpdates.requireVersion(reservationDetails.getVersion(), existingReservation.getVersion(), id);
+
+                    // Actualizar fechas y reclamarlas en el calendario
+                    LocalDate previousCheckIn = existingReservation.getCheckInDate();
+                    LocalDate previousCheckOut = existingReservation.getCheckOutDate();
+                    Long previousVersion = existingReservation.getVersion();
+                    existingReservation.setCheckInDate(reservationDetails.getCheckInDate());
+                    existingReservation.setCheckOutDate(reservationDetails.getCheckOutDate());
+                    if (!bookingCalendar.tryUpdate(existingReservation)) {
+                        logger.error("Suite {} is already booked for dates {} - {}", existingReservation.getSuiteId(),
+                                existingReservation.getCheckInDate(), existingReservation.getCheckOutDate());
+                        return Mono.error(metrics.conflict());
+                    }
+                    // Las noches nuevas se reclaman en Mongo; las que ya cubría la reservación siguen siendo suyas
+                    LocalDate checkIn = existingReservation.getCheckInDate();
+                    LocalDate checkOut = existingReservation.getCheckOutDate();
+                    return claimNights(() -> nightClaims.claim(existingReservation, previousCheckIn, previousCheckOut))
+                            .flatMap(claimed -> {
+                                if (!claimed) {
+                                    logger.error("Suite {} is already booked for dates {} - {} by another instance",
+                                            existingReservation.getSuiteId(), checkIn, checkOut);
+                                    return Mono.error(metrics.conflict());
+                                }
+                                return versionedUpdates.updateIfVersion(Reservation.class, id, previousVersion,
+                                        new Update().set("checkInDate", checkIn).set("checkOutDate", checkOut));
+                            })
+                            .onErrorResume(e -> {
+                                // Restore the previous dates in the calendar if the claim or the write fails
+                                existingReservation.setCheckInDate(previousCheckIn);
+                                existingReservation.setCheckOutDate(previousCheckOut);
+                                bookingCalendar.update(existingReservation);
+                                return afterWrite(() -> nightClaims.release(existingReservation,
+                                        checkIn, checkOut, previousCheckIn, previousCheckOut)).then(Mono.error(e));
+                            })
+                            .switchIfEmpty(Mono.defer(() -> afterWrite(() -> nightClaims.release(existingReservation,
+                                            checkIn, checkOut, previousCheckIn, previousCheckOut))
+                                    .then(concurrentChange(id, existingReservation))))
+                            .flatMap(savedReservation -> afterWrite(() -> {
+                                nightClaims.release(savedReservation, previousCheckIn, previousCheckOut, checkIn, checkOut);
+                                occupancyCounters.reschedule(savedReservation, previousCheckIn, previousCheckOut);
+                                journal.updated(savedReservation);
+                            }).thenReturn(savedReservation));
+                })
+                .retryWhen(versionedUpdates.retryOnConcurrentChange())
+                .flatMap(savedReservation -> resolveReferences(Flux.just(savedReservation)).next());
+    }
+
+    // Otro escritor ganó: el calendario vuelve a lo que quedó guardado y el error hace que se reintente sobre eso
+    private Mono<Reservation> concurrentChange(String id, Reservation claimed) {
+        return reservationRepository.findById(id)
+                .switchIfEmpty(Mono.fromRunnable(() -> bookingCalendar.remove(claimed))
+                        .then(Mono.error(() -> new RuntimeException("Reservación no encontrada con id: " + id))))
+                .flatMap(current -> {
+                    bookingCalendar.update(current);
+                    return Mono.error(ReactiveVersionedUpdates.concurrentChange(Reservation.class, id));
+                });
+    }
+
+    // Cancelar una reservación
+    public Mono<Void> cancelReservation(String id) {
+        return reservationRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Reservación no encontrada con id: " + id)))
+                // Eliminar la reservación; sus fechas quedan libres al quitarla del calendario
+                .flatMap(reservation -> reservationRepository.deleteById(id)
+                        .then(Mono.fromRunnable(() -> {
+                            bookingCalendar.remove(reservation);
+                            metrics.cancelled();
+                        }))
+                        .then(afterWrite(() -> {
+                            nightClaims.release(reservation);
+                            occupancyCounters.remove(reservation);
+                            journal.cancelled(reservation);
+                        })));
+    }
+
+    // Los reclamos de noches usan el cliente bloqueante de Mongo, así que se hacen fuera del event loop
+    private Mono<Boolean> claimNights(Callable<Boolean> claim) {
+        return Mono.fromCallable(claim).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Los contadores de ocupación usan el cliente bloqueante de Mongo y el diario puede esperar su force(),
+    // así que se actualizan fuera del event loop
+    private Mono<Void> afterWrite(Runnable update) {
+        return Mono.fromRunnable(update).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+}
@@ -0,0 +1,165 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.Suite;
+import com.hotelreservation.repository.ReactiveSuiteRepository;
+import com.hotelreservation.repository.ReactiveVersionedUpdates;
+import com.hotelreservation.repository.VersionedUpdates;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Versión no bloqueante de SuiteService para el perfil "reactive".
+// Comparte con la versión bloqueante la caché de consultas y el índice de disponibilidad.
+@Service
+@Profile("reactive")
+public class ReactiveSuiteService {
+
+    private final ReactiveSuiteRepository suiteRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final BookingCalendar bookingCalendar;
+    private final LookupCache lookupCache;
+    private final ReactiveVersionedUpdates versionedUpdates;
+    private final CatalogVersion catalogVersion;
+
+    @Autowired
+    public ReactiveSuiteService(
+            ReactiveSuiteRepository suiteRepository,
+            AvailabilityIndex availabilityIndex,
+            BookingCalendar bookingCalendar,
+            LookupCache lookupCache,
+            ReactiveVersionedUpdates versionedUpdates,
+            CatalogVersion catalogVersion) {
+        this.suiteRepository = suiteRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.bookingCalendar = bookingCalendar;
+        this.lookupCache = lookupCache;
+        this.versionedUpdates = versionedUpdates;
+        this.catalogVersion = catalogVersion;
+    }
+
+    // Obtener todas las suites; el flujo respeta la demanda del suscriptor
+    public Flux<Suite> getAllSuites() {
+        return suiteRepository.findAll();
+    }
+
+    // Obtener una suite por ID
+    public Mono<Suite> getSuiteById(String id) {
+        return getSuitesById(Set.of(id)).mapNotNull(suites -> suites.get(id));
+    }
+
+    // Obtener varias suites por ID, indexadas por ID; las que no existen se omiten
+    public Mono<Map<String, Suite>> getSuitesById(Set<String> ids) {
+        return Mono.fromFuture(() -> lookupCache.getSuitesAsync(ids,
+                missing -> suiteRepository.findAllById(missing).collectList().toFuture()), true);
+    }
+
+    // Obtener suites por tipo
+    public Flux<Suite> getSuitesByType(String type) {
+        return suiteRepository.findByType(type);
+    }
+
+    // Obtener suites disponibles
+    public Flux<Suite> getAvailableSuites() {
+        return suiteRepository.findByAvailable(true);
+    }
+
+    // Obtener suites por tipo y disponibilidad
+    public Flux<Suite> getSuitesByTypeAndAvailability(String type, boolean available) {
+        return suiteRepository.findByTypeAndAvailable(type, available);
+    }
+
+    // Obtener suites por rango de precio
+    public Flux<Suite> getSuitesByPriceRange(double minPrice, double maxPrice) {
+        return suiteRepository.findByPriceBetween(minPrice, maxPrice);
+    }
+
+    // Indicar si una suite se ofrece y está libre en todo el rango (ambos extremos inclusivos);
+    // vacío si la suite no existe
+    public Mono<Boolean> isAvailable(String id, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return Mono.error(new IllegalArgumentException("La fecha inicial debe ser anterior a la fecha final"));
+        }
+        return getSuiteById(id).map(suite -> suite.isAvailable() && !bookingCalendar.isBooked(id, from, to));
+    }
+
+    // Buscar suites libres en un rango de fechas, con filtros opcionales de tipo y precio
+    public Flux<Suite> searchAvailableSuites(
+            LocalDate from, LocalDate to, String type, Double minPrice, Double maxPrice) {
+        if (from.isAfter(to)) {
+            return Flux.error(new IllegalArgumentException("La fecha inicial debe ser anterior a la fecha final"));
+        }
+        return Mono.fromSupplier(() -> availabilityIndex.findAvailable(from, to, type, minPrice, maxPrice))
+                .flatMapMany(indexed -> indexed.map(Flux::fromIterable).orElseGet(() -> suiteRepository.findAll()
+                        // Fuera del horizonte indexado se consulta el calendario suite por suite
+                        .filter(Suite::isAvailable)
+                        .filter(suite -> type == null || type.equals(suite.getType()))
+                        .filter(suite -> minPrice == null || suite.getPrice() >= minPrice)
+                        .filter(suite -> maxPrice == null || suite.getPrice() <= maxPrice)
+                        .filter(suite -> !bookingCalendar.isBooked(suite.getId(), from, to))));
+    }
+
+    // Crear una nueva suite
+    public Mono<Suite> createSuite(Suite suite) {
+        suite.setVersion(null);
+        return suiteRepository.save(suite)
+                .doOnNext(availabilityIndex::putSuite)
+                .flatMap(savedSuite -> bumpCatalogVersion().thenReturn(savedSuite));
+    }
+
+    // Actualizar una suite existente; si suiteDetails trae versión, debe ser la vigente
+    public Mono<Suite> updateSuite(String id, Suite suiteDetails) {
+        return update(id, existingSuite -> {
+            VersionedUpdates.requireVersion(suiteDetails.getVersion(), existingSuite.getVersion(), id);
+            return new Update()
+                    .set("type", suiteDetails.getType())
+                    .set("price", suiteDetails.getPrice())
+                    .set("available", suiteDetails.isAvailable());
+        });
+    }
+
+    // Actualizar disponibilidad de una suite
+    public Mono<Suite> updateAvailability(String id, boolean available) {
+        return update(id, suite -> new Update().set("available", available));
+    }
+
+    private Mono<Suite> update(String id, Function<Suite, Update> changes) {
+        return versionedUpdates.update(Suite.class, id, Suite::getVersion, changes)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Suite no encontrada con id: " + id)))
+                .map(VersionedUpdates.Change::after)
+                .doOnNext(this::publish)
+                .flatMap(savedSuite -> bumpCatalogVersion().thenReturn(savedSuite));
+    }
+
+    // Eliminar una suite
+    public Mono<Void> deleteSuite(String id) {
+        return suiteRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? suiteRepository.deleteById(id)
+                        : Mono.error(new RuntimeException("Suite no encontrada con id: " + id)))
+                .then(Mono.fromRunnable(() -> {
+                    lookupCache.evictSuite(id);
+                    availabilityIndex.removeSuite(id);
+                }))
+                .then(bumpCatalogVersion());
+    }
+
+    // La versión del catálogo es compartida con la versión bloqueante y usa el cliente bloqueante de Mongo,
+    // así que se incrementa fuera del event loop
+    private Mono<Void> bumpCatalogVersion() {
+        return Mono.fromRunnable(catalogVersion::bump).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    private void publish(Suite savedSuite) {
+        lookupCache.putSuite(savedSuite);
+        availabilityIndex.putSuite(savedSuite);
+    }
+}
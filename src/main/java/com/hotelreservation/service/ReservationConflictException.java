@@ -0,0 +1,10 @@
+package com.hotelreservation.service;
+
+// Las fechas pedidas se traslapan con otra reservación de la misma suite
+public class ReservationConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+}
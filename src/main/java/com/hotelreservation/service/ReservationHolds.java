@@ -0,0 +1,121 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.dto.ReservationHold;
+import com.hotelreservation.model.Reservation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bloqueos temporales vigentes. Las fechas de cada bloqueo ya están reclamadas en el calendario de
+// reservaciones con el ID que tendrá la reservación, así que la verificación de traslape y la búsqueda
+// de disponibilidad los respetan sin cambios. Los vencimientos se llevan en una rueda de tiempo que avanza
+// un tick por vez desde el planificador: ni un hilo ni una consulta a Mongo por bloqueo.
+// Confirmar, liberar y vencer compiten por quitar el bloqueo del mapa; solo el que lo quita actúa.
+// Los bloqueos viven en memoria de esta instancia y se pierden al reiniciarla. Liberar o vencer un bloqueo
+// publica NightsFreed para la lista de espera. Solo existen en el perfil bloqueante, que es el único que
+// expone los bloqueos.
+@Component
+@Profile("!reactive")
+public class ReservationHolds {
+    private final BookingCalendar bookingCalendar;
+    private final ApplicationEventPublisher events;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final TimingWheel<Hold> wheel;
+    private final Counter expired;
+
+    @Autowired
+    public ReservationHolds(
+            BookingCalendar bookingCalendar,
+            ApplicationEventPublisher events,
+            MeterRegistry meterRegistry,
+            @Value("${hotel.holds.ttl:10m}") Duration ttl,
+            @Value("${hotel.holds.tick-ms:1000}") long tickMillis) {
+        this.bookingCalendar = bookingCalendar;
+        this.events = events;
+        this.ttl = ttl;
+        this.clock = Clock.systemUTC();
+        // Una vuelta cubre al menos el TTL, así que ningún bloqueo espera más de una vuelta
+        int slots = Integer.highestOneBit((int) Math.max(64, ttl.toMillis() / tickMillis)) << 1;
+        this.wheel = new TimingWheel<>(tickMillis, slots, clock.millis());
+        this.expired = meterRegistry.counter("hotel.reservations.holds.expired");
+        meterRegistry.gaugeMapSize("hotel.reservations.holds.active", List.of(), holds);
+    }
+
+    // Registrar un bloqueo cuyas fechas ya se reclamaron en el calendario
+    ReservationHold add(Reservation claimed) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        Hold hold = new Hold(claimed, expiresAt);
+        holds.put(claimed.getId(), hold);
+        wheel.schedule(hold, expiresAt.toEpochMilli());
+        return hold.view();
+    }
+
+    // Quitar el bloqueo para confirmarlo; null si no existe o ya venció, aunque la rueda aún no lo haya
+    // procesado. Las fechas de un bloqueo vigente siguen reclamadas.
+    Reservation take(String holdId) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            return null;
+        }
+        if (!clock.instant().isBefore(hold.expiresAt())) {
+            free(hold);
+            expired.increment();
+            return null;
+        }
+        return hold.claimed();
+    }
+
+    // Liberar el bloqueo y sus fechas; false si no existe o ya venció
+    boolean release(String holdId) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            return false;
+        }
+        free(hold);
+        return true;
+    }
+
+    // Reservaciones de los bloqueos vigentes, para conservarlas al recargar el calendario
+    public Collection<Reservation> active() {
+        return holds.values().stream().map(Hold::claimed).toList();
+    }
+
+    @Scheduled(fixedDelayString = "${hotel.holds.tick-ms:1000}")
+    public void expire() {
+        for (Hold hold : wheel.advance(clock.millis())) {
+            if (holds.remove(hold.claimed().getId(), hold)) {
+                free(hold);
+                expired.increment();
+            }
+        }
+    }
+
+    private void free(Hold hold) {
+        Reservation claimed = hold.claimed();
+        bookingCalendar.remove(claimed);
+        events.publishEvent(new NightsFreed(claimed.getSuiteId(), claimed.getSuiteType(),
+                claimed.getCheckInDate(), claimed.getCheckOutDate(), claimed.getId()));
+    }
+
+    private record Hold(Reservation claimed, Instant expiresAt) {
+        ReservationHold view() {
+            return new ReservationHold(claimed.getId(), claimed.getCustomerId(), claimed.getSuiteId(),
+                    claimed.getCheckInDate(), claimed.getCheckOutDate(), expiresAt);
+        }
+    }
+}
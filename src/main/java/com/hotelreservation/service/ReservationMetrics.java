@@ -0,0 +1,50 @@
+package com.hotelreservation.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Contadores de reservaciones creadas, traslapes, rechazos por motivo y cancelaciones
+@Component
+public class ReservationMetrics {
+    static final String CONFLICT_MESSAGE = "Suite is already booked for selected dates";
+
+    private final Counter created;
+    private final Counter conflicts;
+    private final Counter cancelled;
+    private final Map<ReservationRejection, Counter> rejected = new EnumMap<>(ReservationRejection.class);
+
+    @Autowired
+    public ReservationMetrics(MeterRegistry meterRegistry) {
+        this.created = meterRegistry.counter("hotel.reservations.created");
+        this.conflicts = meterRegistry.counter("hotel.reservations.conflicts");
+        this.cancelled = meterRegistry.counter("hotel.reservations.cancelled");
+        for (ReservationRejection rejection : ReservationRejection.values()) {
+            rejected.put(rejection, meterRegistry.counter("hotel.reservations.rejected", "reason", rejection.getReason()));
+        }
+    }
+
+    public void created(int count) {
+        created.increment(count);
+    }
+
+    public void cancelled() {
+        cancelled.increment();
+    }
+
+    // Contar el traslape y devolver la excepción que recibe el cliente
+    public ReservationConflictException conflict() {
+        conflicts.increment();
+        return new ReservationConflictException(CONFLICT_MESSAGE);
+    }
+
+    // Contar el rechazo y devolver la excepción que recibe el cliente
+    public RuntimeException reject(ReservationRejection rejection) {
+        rejected.get(rejection).increment();
+        return new RuntimeException(rejection.getMessage());
+    }
+}
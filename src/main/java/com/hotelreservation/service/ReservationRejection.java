@@ -0,0 +1,59 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.Customer;
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.model.Suite;
+
+import java.time.LocalDate;
+
+// Motivos de rechazo de una reservación, en orden de precedencia, con la etiqueta que se publica
+// en hotel.reservations.rejected y el mensaje que recibe el cliente
+public enum ReservationRejection {
+    CUSTOMER_NOT_FOUND("customer_not_found", "Customer not found"),
+    SUITE_NOT_FOUND("suite_not_found", "Suite not found"),
+    SUITE_NOT_AVAILABLE("suite_not_available", "Suite is not available"),
+    MISSING_DATES("missing_dates", "Check-in and check-out dates are required"),
+    INVALID_DATES("invalid_dates", "Check-in date must be before check-out date"),
+    PAST_CHECK_IN("past_check_in", "Check-in date cannot be in the past"),
+    BATCH_REJECTED("batch_rejected", "Batch rejected because other items failed");
+
+    private final String reason;
+    private final String message;
+
+    ReservationRejection(String reason, String message) {
+        this.reason = reason;
+        this.message = message;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    // Validar una reservación contra el cliente y la suite ya cargados (null si no existen);
+    // devuelve el primer motivo de rechazo o null si es válida
+    public static ReservationRejection check(Reservation reservation, Customer customer, Suite suite, LocalDate today) {
+        if (customer == null) {
+            return CUSTOMER_NOT_FOUND;
+        }
+        if (suite == null) {
+            return SUITE_NOT_FOUND;
+        }
+        if (!suite.isAvailable()) {
+            return SUITE_NOT_AVAILABLE;
+        }
+        if (reservation.getCheckInDate() == null || reservation.getCheckOutDate() == null) {
+            return MISSING_DATES;
+        }
+        if (reservation.getCheckInDate().isAfter(reservation.getCheckOutDate())) {
+            return INVALID_DATES;
+        }
+        if (reservation.getCheckInDate().isBefore(today)) {
+            return PAST_CHECK_IN;
+        }
+        return null;
+    }
+}
@@ -1,140 +1,577 @@
 package com.hotelreservation.service;
 
+import com.hotelreservation.dto.BatchMode;
+import com.hotelreservation.dto.BatchReservationResult;
+import com.hotelreservation.dto.CursorPage;
+import com.hotelreservation.dto.ReservationHold;
+import com.hotelreservation.journal.BookingJournal;
 import com.hotelreservation.model.Customer;
 import com.hotelreservation.model.Reservation;
 import com.hotelreservation.model.Suite;
-import com.hotelreservation.repository.CustomerRepository;
 import com.hotelreservation.repository.ReservationRepository;
-import com.hotelreservation.repository.SuiteRepository;
+import com.hotelreservation.repository.VersionedUpdates;
+import io.micrometer.core.annotation.Timed;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
 
+// En el perfil "reactive" la reemplaza ReactiveReservationService
 @Service
+@Profile("!reactive")
+@Timed(value = "hotel.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class ReservationService {
     private static final Logger logger = LoggerFactory.getLogger(ReservationService.class);
 
     private final ReservationRepository reservationRepository;
-    private final CustomerRepository customerRepository;
-    private final SuiteRepository suiteRepository;
+    private final CustomerService customerService;
+    private final SuiteService suiteService;
+    private final BookingCalendar bookingCalendar;
+    private final ReservationMetrics metrics;
+    private final OccupancyCounters occupancyCounters;
+    private final VersionedUpdates versionedUpdates;
+    private final ReservationHolds reservationHolds;
+    private final ApplicationEventPublisher events;
+    private final BookingJournal journal;
+    private final NightClaims nightClaims;
+    private final boolean virtualThreads;
+    private final int maxBatchSize;
 
     @Autowired
     public ReservationService(
             ReservationRepository reservationRepository,
-            CustomerRepository customerRepository,
-            SuiteRepository suiteRepository) {
+            CustomerService customerService,
+            SuiteService suiteService,
+            BookingCalendar bookingCalendar,
+            ReservationMetrics metrics,
+            OccupancyCounters occupancyCounters,
+            VersionedUpdates versionedUpdates,
+            ReservationHolds reservationHolds,
+            ApplicationEventPublisher events,
+            BookingJournal journal,
+            NightClaims nightClaims,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${hotel.reservations.batch.max-size:500}") int maxBatchSize) {
         this.reservationRepository = reservationRepository;
-        this.customerRepository = customerRepository;
-        this.suiteRepository = suiteRepository;
+        this.customerService = customerService;
+        this.suiteService = suiteService;
+        this.bookingCalendar = bookingCalendar;
+        this.metrics = metrics;
+        this.occupancyCounters = occupancyCounters;
+        this.versionedUpdates = versionedUpdates;
+        this.reservationHolds = reservationHolds;
+        this.events = events;
+        this.journal = journal;
+        this.nightClaims = nightClaims;
+        this.virtualThreads = virtualThreads;
+        this.maxBatchSize = maxBatchSize;
     }
 
     // Obtener todas las reservaciones
     public List<Reservation> getAllReservations() {
-        return reservationRepository.findAll();
+        return resolveReferences(reservationRepository.findAll());
+    }
+
+    // Obtener una página de reservaciones ordenada por ID o por fecha de entrada
+    public CursorPage<Reservation> getReservationsPage(String cursor, Integer size, String sort) {
+        int pageSize = PageCursor.pageSize(size);
+        List<Reservation> fetched;
+        if (sort == null || sort.equals("id")) {
+            PageRequest request = PageRequest.of(0, pageSize + 1, Sort.by("id"));
+            fetched = cursor == null
+                    ? reservationRepository.findAllBy(request)
+                    : reservationRepository.findByIdGreaterThan(PageCursor.decode(cursor, "id", 1)[0], request);
+            return resolvePage(PageCursor.page(fetched, pageSize,
+                    reservation -> PageCursor.encode("id", reservation.getId())));
+        }
+        if (sort.equals("checkInDate")) {
+            PageRequest request = PageRequest.of(0, pageSize + 1, Sort.by("checkInDate", "id"));
+            if (cursor == null) {
+                fetched = reservationRepository.findAllBy(request);
+            } else {
+                String[] last = PageCursor.decode(cursor, "checkInDate", 2);
+                LocalDate checkInDate = LocalDate.parse(last[0]);
+                fetched = reservationRepository.findByCheckInDateGreaterThanOrCheckInDateAndIdGreaterThan(
+                        checkInDate, checkInDate, last[1], request);
+            }
+            return resolvePage(PageCursor.page(fetched, pageSize, reservation -> PageCursor.encode(
+                    "checkInDate", String.valueOf(reservation.getCheckInDate()), reservation.getId())));
+        }
+        throw new IllegalArgumentException("Orden no soportado: " + sort);
+    }
+
+    // Recorrer todas las reservaciones sin cargarlas en memoria; el llamador debe cerrar el stream.
+    // Las reservaciones se entregan con la copia de datos del cliente y la suite, sin resolver referencias.
+    public Stream<Reservation> streamReservations() {
+        return reservationRepository.streamAllBy();
     }
 
     // Obtener una reservación por ID
     public Optional<Reservation> getReservationById(String id) {
-        return reservationRepository.findById(id);
+        return reservationRepository.findById(id)
+                .map(reservation -> resolveReferences(List.of(reservation)).get(0));
     }
 
     // Obtener reservaciones por cliente
     public List<Reservation> getReservationsByCustomer(String customerId) {
-        return reservationRepository.findByCustomerId(customerId);
+        return resolveReferences(reservationRepository.findByCustomerId(customerId));
     }
 
     // Obtener reservaciones por suite
     public List<Reservation> getReservationsBySuite(String suiteId) {
-        return reservationRepository.findBySuiteId(suiteId);
+        return resolveReferences(reservationRepository.findBySuiteId(suiteId));
     }
 
     // Obtener reservaciones activas
     public List<Reservation> getActiveReservations() {
-        return reservationRepository.findByCheckOutDateAfter(LocalDate.now());
+        return resolveReferences(reservationRepository.findByCheckOutDateAfter(LocalDate.now()));
     }
 
     // Obtener reservaciones por rango de fechas
     public List<Reservation> getReservationsByDateRange(LocalDate startDate, LocalDate endDate) {
-        return reservationRepository.findByCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqual(
-                endDate, startDate);
+        return resolveReferences(reservationRepository
+                .findByCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqual(endDate, startDate));
+    }
+
+    private CursorPage<Reservation> resolvePage(CursorPage<Reservation> page) {
+        resolveReferences(page.getItems());
+        return page;
+    }
+
+    // Resolver clientes y suites de un lote de reservaciones; los que no están en caché se cargan
+    // con una sola consulta $in por colección
+    public List<Reservation> resolveReferences(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return reservations;
+        }
+        Set<String> customerIds = new HashSet<>();
+        Set<String> suiteIds = new HashSet<>();
+        for (Reservation reservation : reservations) {
+            if (reservation.getCustomerId() != null) {
+                customerIds.add(reservation.getCustomerId());
+            }
+            if (reservation.getSuiteId() != null) {
+                suiteIds.add(reservation.getSuiteId());
+            }
+        }
+        Map<String, Customer> customers = customerService.getCustomersById(customerIds);
+        Map<String, Suite> suites = suiteService.getSuitesById(suiteIds);
+        for (Reservation reservation : reservations) {
+            reservation.setCustomer(customers.get(reservation.getCustomerId()));
+            reservation.setSuite(suites.get(reservation.getSuiteId()));
+        }
+        return reservations;
     }
 
-    // Crear una nueva reservación
+    // Crear una nueva reservación. El cliente y la suite se consultan en paralelo, cada uno en su hilo
+    // virtual, y después se validan en el mismo orden de precedencia que antes; la verificación de traslape
+    // es en memoria y solo se escribe la reservación: unas dos idas a Mongo en total.
     public Reservation createReservation(Reservation reservation) {
+        claim(reservation);
+        return persist(reservation);
+    }
+
+    // Bloquear la suite y las fechas durante el TTL de los bloqueos sin escribir en Mongo. Las validaciones
+    // y la verificación de traslape son las mismas que al crear una reservación.
+    public ReservationHold placeHold(Reservation reservation) {
+        claim(reservation);
+        ReservationHold hold = reservationHolds.add(reservation);
+        logger.info("Hold {} placed on suite {} until {}", hold.getId(), hold.getSuiteId(), hold.getExpiresAt());
+        return hold;
+    }
+
+    // Convertir un bloqueo vigente en reservación; vacío si no existe o ya venció. Se publica HoldConfirmed, o
+    // NightsFreed si la escritura falla y las fechas se liberan.
+    public Optional<Reservation> confirmHold(String holdId) {
+        Reservation reservation = reservationHolds.take(holdId);
+        if (reservation == null) {
+            return Optional.empty();
+        }
+        Reservation savedReservation;
+        try {
+            savedReservation = persist(reservation);
+        } catch (RuntimeException e) {
+            events.publishEvent(new NightsFreed(reservation.getSuiteId(), reservation.getSuiteType(),
+                    reservation.getCheckInDate(), reservation.getCheckOutDate(), holdId));
+            throw e;
+        }
+        events.publishEvent(new HoldConfirmed(holdId));
+        return Optional.of(savedReservation);
+    }
+
+    // Liberar un bloqueo antes de que venza; false si no existe o ya venció
+    public boolean releaseHold(String holdId) {
+        return reservationHolds.release(holdId);
+    }
+
+    // Validar la reservación y reclamar sus fechas en el calendario
+    private void claim(Reservation reservation) {
+        Customer customer;
+        Suite suite;
+        try (ExecutorService scope = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor() : null) {
+            Future<Optional<Customer>> customerLookup = fork(scope,
+                    () -> Optional.ofNullable(reservation.getCustomerId()).flatMap(customerService::getCustomerById));
+            Future<Optional<Suite>> suiteLookup = fork(scope,
+                    () -> Optional.ofNullable(reservation.getSuiteId()).flatMap(suiteService::getSuiteById));
+            customer = await(customerLookup).orElse(null);
+            if (customer == null) {
+                // Sin interrumpir: el hilo puede estar cargando la suite en LookupCache para otras solicitudes
+                // que esperan la misma llave; si aún no empezó, ya no corre
+                suiteLookup.cancel(false);
+                suite = null;
+            } else {
+                suite = await(suiteLookup).orElse(null);
+            }
+        }
+
         // Validate customer exists
-        Customer customer = customerRepository.findById(reservation.getCustomer().getId())
-                .orElseThrow(() -> {
-                    logger.error("Customer not found with ID: {}", reservation.getCustomer().getId());
-                    return new RuntimeException("Customer not found");
-                });
+        if (customer == null) {
+            logger.error("Customer not found with ID: {}", reservation.getCustomerId());
+            throw metrics.reject(ReservationRejection.CUSTOMER_NOT_FOUND);
+        }
 
         // Validate suite exists and is available
-        Suite suite = suiteRepository.findById(reservation.getSuite().getId())
-                .orElseThrow(() -> {
-                    logger.error("Suite not found with ID: {}", reservation.getSuite().getId());
-                    return new RuntimeException("Suite not found");
-                });
+        if (suite == null) {
+            logger.error("Suite not found with ID: {}", reservation.getSuiteId());
+            throw metrics.reject(ReservationRejection.SUITE_NOT_FOUND);
+        }
 
         if (!suite.isAvailable()) {
             logger.error("Suite {} is not available", suite.getId());
-            throw new RuntimeException("Suite is not available");
+            throw metrics.reject(ReservationRejection.SUITE_NOT_AVAILABLE);
         }
 
         // Validate dates
         if (reservation.getCheckInDate().isAfter(reservation.getCheckOutDate())) {
             logger.error("Invalid dates: check-in {} is after check-out {}",
                     reservation.getCheckInDate(), reservation.getCheckOutDate());
-            throw new RuntimeException("Check-in date must be before check-out date");
+            throw metrics.reject(ReservationRejection.INVALID_DATES);
         }
 
         if (reservation.getCheckInDate().isBefore(LocalDate.now())) {
             logger.error("Check-in date {} is in the past", reservation.getCheckInDate());
-            throw new RuntimeException("Check-in date cannot be in the past");
+            throw metrics.reject(ReservationRejection.PAST_CHECK_IN);
         }
 
-        // Check suite availability for selected dates
-        boolean isSuiteBooked = reservationRepository
-                .existsBySuiteIdAndCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqual(
-                        suite.getId(), reservation.getCheckOutDate(), reservation.getCheckInDate());
-
-        if (isSuiteBooked) {
+        // Claim the dates in the in-memory calendar; the check and the claim are atomic per suite,
+        // so two concurrent requests for the same suite and dates cannot both pass
+        reservation.setId(new ObjectId().toHexString());
+        snapshot(reservation, customer, suite);
+        if (!bookingCalendar.tryReserve(reservation)) {
             logger.error("Suite {} is already booked for dates {} - {}",
                     suite.getId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
-            throw new RuntimeException("Suite is already booked for selected dates");
+            throw metrics.conflict();
         }
+    }
 
-        // Update suite availability
-        suite.setAvailable(false);
-        suiteRepository.save(suite);
+    // Guardar una reservación cuyas fechas ya están reclamadas en el calendario. Antes se reclaman sus noches
+    // en Mongo, porque otra instancia pudo haber aceptado las mismas fechas en su propio calendario.
+    private Reservation persist(Reservation reservation) {
+        boolean claimed;
+        try {
+            claimed = nightClaims.claim(reservation);
+        } catch (RuntimeException e) {
+            bookingCalendar.remove(reservation);
+            throw e;
+        }
+        if (!claimed) {
+            logger.error("Suite {} is already booked for dates {} - {} by another instance",
+                    reservation.getSuiteId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+            bookingCalendar.remove(reservation);
+            throw metrics.conflict();
+        }
 
-        // Save reservation
-        Reservation savedReservation = reservationRepository.save(reservation);
+        // Save the reservation with its snapshot; the suite itself is not written, since its
+        // occupancy by date lives in the calendar
+        Reservation savedReservation;
+        try {
+            savedReservation = reservationRepository.insert(reservation);
+        } catch (RuntimeException e) {
+            // Release the claimed dates if the write fails
+            bookingCalendar.remove(reservation);
+            nightClaims.release(reservation);
+            throw e;
+        }
         logger.info("Reservation created successfully with ID: {}", savedReservation.getId());
-
+        journal.created(savedReservation);
+        metrics.created(1);
+        occupancyCounters.add(List.of(savedReservation));
         return savedReservation;
     }
 
-    // Actualizar una reservación existente
+    // Lanzar una consulta en su propio hilo virtual. Con spring.threads.virtual.enabled=false no se crean
+    // hilos por solicitud: la consulta queda pendiente y corre en el hilo actual al esperarla.
+    private static <T> Future<T> fork(ExecutorService scope, Callable<T> lookup) {
+        return scope != null ? scope.submit(lookup) : new Deferred<>(lookup);
+    }
+
+    // Esperar una consulta lanzada en paralelo y propagar su error tal como lo lanzó el repositorio
+    private static <T> T await(Future<T> future) {
+        if (future instanceof Deferred<T> deferred) {
+            deferred.run();
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while creating reservation", e);
+        }
+    }
+
+    private static final class Deferred<T> extends FutureTask<T> {
+        Deferred(Callable<T> lookup) {
+            super(lookup);
+        }
+    }
+
+    // Crear un lote de reservaciones: clientes y suites se validan con una consulta $in por colección,
+    // los traslapes se revisan en una sola pasada y las reservaciones aceptadas se insertan con una
+    // escritura bulk. El resultado conserva el orden de la solicitud.
+    public List<BatchReservationResult> createReservations(List<Reservation> reservations, BatchMode mode) {
+        if (reservations.isEmpty() || reservations.size() > maxBatchSize) {
+            throw new IllegalArgumentException("El lote debe tener entre 1 y " + maxBatchSize + " reservaciones");
+        }
+        boolean allOrNothing = mode == BatchMode.ALL_OR_NOTHING;
+
+        Set<String> customerIds = new HashSet<>();
+        Set<String> suiteIds = new HashSet<>();
+        for (Reservation reservation : reservations) {
+            if (reservation.getCustomerId() != null) {
+                customerIds.add(reservation.getCustomerId());
+            }
+            if (reservation.getSuiteId() != null) {
+                suiteIds.add(reservation.getSuiteId());
+            }
+        }
+        Map<String, Customer> customers = customerService.getCustomersById(customerIds);
+        Map<String, Suite> suites = suiteService.getSuitesById(suiteIds);
+
+        // Validate every item against the suite and customer state at the start of the batch
+        ReservationRejection[] rejections = new ReservationRejection[reservations.size()];
+        String[] errors = new String[reservations.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<Reservation> valid = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < reservations.size(); i++) {
+            Reservation reservation = reservations.get(i);
+            Customer customer = reservation.getCustomerId() == null ? null : customers.get(reservation.getCustomerId());
+            Suite suite = reservation.getSuiteId() == null ? null : suites.get(reservation.getSuiteId());
+            rejections[i] = ReservationRejection.check(reservation, customer, suite, today);
+            if (rejections[i] != null) {
+                errors[i] = rejections[i].getMessage();
+            } else {
+                reservation.setId(new ObjectId().toHexString());
+                snapshot(reservation, customer, suite);
+                validIndexes.add(i);
+                valid.add(reservation);
+            }
+        }
+
+        // Claim all the dates at once; in all-or-nothing mode there is nothing to claim if any item failed
+        boolean failed = valid.size() < reservations.size();
+        if (!valid.isEmpty() && !(allOrNothing && failed)) {
+            boolean[] conflicts = bookingCalendar.tryReserveAll(valid, allOrNothing);
+            for (int j = 0; j < conflicts.length; j++) {
+                if (conflicts[j]) {
+                    errors[validIndexes.get(j)] = metrics.conflict().getMessage();
+                    failed = true;
+                }
+            }
+        }
+
+        // Claim the nights in Mongo too, since another instance may have accepted the same dates
+        List<Reservation> accepted = new ArrayList<>();
+        if (!(allOrNothing && failed)) {
+            for (int j = 0; j < valid.size(); j++) {
+                Reservation reservation = valid.get(j);
+                if (errors[validIndexes.get(j)] != null) {
+                    continue;
+                }
+                if (claimNights(reservation)) {
+                    accepted.add(reservation);
+                } else {
+                    errors[validIndexes.get(j)] = metrics.conflict().getMessage();
+                    failed = true;
+                }
+            }
+            if (allOrNothing && failed) {
+                accepted.forEach(this::release);
+                accepted.clear();
+            } else {
+                insertAll(accepted);
+                metrics.created(accepted.size());
+            }
+        }
+
+        List<BatchReservationResult> results = new ArrayList<>(reservations.size());
+        for (int i = 0; i < reservations.size(); i++) {
+            if (rejections[i] != null) {
+                metrics.reject(rejections[i]);
+            }
+            if (errors[i] != null) {
+                results.add(BatchReservationResult.rejected(i, errors[i]));
+            } else if (allOrNothing && failed) {
+                String error = metrics.reject(ReservationRejection.BATCH_REJECTED).getMessage();
+                results.add(BatchReservationResult.rejected(i, error));
+            } else {
+                results.add(BatchReservationResult.created(i, reservations.get(i)));
+            }
+        }
+        logger.info("Reservation batch of {} processed in {} mode: {} created",
+                reservations.size(), mode, accepted.size());
+        return results;
+    }
+
+    // Reclamar las noches de una reservación del lote; si no se puede, sus fechas se quitan del calendario
+    private boolean claimNights(Reservation reservation) {
+        boolean claimed;
+        try {
+            claimed = nightClaims.claim(reservation);
+        } catch (RuntimeException e) {
+            bookingCalendar.remove(reservation);
+            throw e;
+        }
+        if (!claimed) {
+            bookingCalendar.remove(reservation);
+        }
+        return claimed;
+    }
+
+    private void release(Reservation reservation) {
+        bookingCalendar.remove(reservation);
+        nightClaims.release(reservation);
+    }
+
+    private void insertAll(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        try {
+            reservationRepository.insert(reservations);
+        } catch (RuntimeException e) {
+            // Without transactions, undo whatever part of the batch was written and release the dates
+            try {
+                reservationRepository.deleteAllById(reservations.stream().map(Reservation::getId).toList());
+            } catch (RuntimeException cleanup) {
+                e.addSuppressed(cleanup);
+            }
+            reservations.forEach(this::release);
+            throw e;
+        }
+        occupancyCounters.add(reservations);
+        reservations.forEach(journal::created);
+    }
+
+    // Copiar los datos del cliente y la suite que se guardan junto con la reservación
+    static void snapshot(Reservation reservation, Customer customer, Suite suite) {
+        reservation.setCustomer(customer);
+        reservation.setCustomerName(customer.getName());
+        reservation.setSuite(suite);
+        reservation.setSuiteType(suite.getType());
+        reservation.setSuitePrice(suite.getPrice());
+    }
+
+    // Actualizar las fechas de una reservación existente. Las nuevas fechas se verifican contra las demás
+    // reservaciones de la suite, sin contar a la propia reservación.
     public Reservation updateReservation(String id, Reservation reservationDetails) {
-        return reservationRepository.findById(id)
-                .map(existingReservation -> {
-                    // Validar fechas
-                    if (reservationDetails.getCheckInDate().isAfter(reservationDetails.getCheckOutDate())) {
-                        throw new RuntimeException("La fecha de entrada debe ser anterior a la fecha de salida");
-                    }
-
-                    // Actualizar fechas
-                    existingReservation.setCheckInDate(reservationDetails.getCheckInDate());
-                    existingReservation.setCheckOutDate(reservationDetails.getCheckOutDate());
-
-                    return reservationRepository.save(existingReservation);
-                })
+        Reservation existingReservation = reservationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Reservación no encontrada con id: " + id));
+
+        // Validar fechas
+        if (reservationDetails.getCheckInDate().isAfter(reservationDetails.getCheckOutDate())) {
+            throw new RuntimeException("La fecha de entrada debe ser anterior a la fecha de salida");
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            VersionedUpdates.requireVersion(reservationDetails.getVersion(), existingReservation.getVersion(), id);
+
+            // Actualizar fechas y reclamarlas en el calendario
+            LocalDate previousCheckIn = existingReservation.getCheckInDate();
+            LocalDate previousCheckOut = existingReservation.getCheckOutDate();
+            Long previousVersion = existingReservation.getVersion();
+            existingReservation.setCheckInDate(reservationDetails.getCheckInDate());
+            existingReservation.setCheckOutDate(reservationDetails.getCheckOutDate());
+            if (!bookingCalendar.tryUpdate(existingReservation)) {
+                logger.error("Suite {} is already booked for dates {} - {}", existingReservation.getSuiteId(),
+                        existingReservation.getCheckInDate(), existingReservation.getCheckOutDate());
+                throw metrics.conflict();
+            }
+
+            // Reclamar en Mongo las noches nuevas; las que ya cubría la reservación siguen siendo suyas.
+            // Solo se escriben las fechas, y solo si nadie cambió la reservación desde que se leyó.
+            LocalDate checkIn = existingReservation.getCheckInDate();
+            LocalDate checkOut = existingReservation.getCheckOutDate();
+            Optional<Reservation> savedReservation;
+            try {
+                if (!nightClaims.claim(existingReservation, previousCheckIn, previousCheckOut)) {
+                    logger.error("Suite {} is already booked for dates {} - {} by another instance",
+                            existingReservation.getSuiteId(), checkIn, checkOut);
+                    throw metrics.conflict();
+                }
+                savedReservation = versionedUpdates.updateIfVersion(Reservation.class, id, previousVersion,
+                        new Update()
+                                .set("checkInDate", checkIn)
+                                .set("checkOutDate", checkOut));
+            } catch (RuntimeException e) {
+                // Restore the previous dates in the calendar if the claim or the write fails
+                existingReservation.setCheckInDate(previousCheckIn);
+                existingReservation.setCheckOutDate(previousCheckOut);
+                bookingCalendar.update(existingReservation);
+                nightClaims.release(existingReservation, checkIn, checkOut, previousCheckIn, previousCheckOut);
+                throw e;
+            }
+            if (savedReservation.isPresent()) {
+                nightClaims.release(existingReservation, previousCheckIn, previousCheckOut, checkIn, checkOut);
+                occupancyCounters.reschedule(savedReservation.get(), previousCheckIn, previousCheckOut);
+                journal.updated(savedReservation.get());
+                // Las noches anteriores que ya no cubren las nuevas fechas quedan libres
+                NightsFreed.rescheduled(existingReservation, previousCheckIn, previousCheckOut)
+                        .forEach(events::publishEvent);
+                return resolveReferences(List.of(savedReservation.get())).get(0);
+            }
+
+            // Otro escritor ganó: el calendario vuelve a lo que quedó guardado y se reintenta sobre eso
+            nightClaims.release(existingReservation, checkIn, checkOut, previousCheckIn, previousCheckOut);
+            Optional<Reservation> current = reservationRepository.findById(id);
+            if (current.isEmpty()) {
+                bookingCalendar.remove(existingReservation);
+                throw new RuntimeException("Reservación no encontrada con id: " + id);
+            }
+            existingReservation = current.get();
+            bookingCalendar.update(existingReservation);
+            if (attempt >= versionedUpdates.maxAttempts()) {
+                throw new OptimisticLockingFailureException(
+                        "Reservation " + id + " changed concurrently " + attempt + " times");
+            }
+        }
     }
 
     // Cancelar una reservación
@@ -142,12 +579,13 @@ public class ReservationService {
         Reservation reservation = reservationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Reservación no encontrada con id: " + id));
 
-        // Liberar la suite
-        Suite suite = reservation.getSuite();
-        suite.setAvailable(true);
-        suiteRepository.save(suite);
-
-        // Eliminar la reservación
+        // Eliminar la reservación; sus fechas quedan libres al quitarla del calendario
         reservationRepository.deleteById(id);
+        bookingCalendar.remove(reservation);
+        nightClaims.release(reservation);
+        occupancyCounters.remove(reservation);
+        journal.cancelled(reservation);
+        metrics.cancelled();
+        events.publishEvent(NightsFreed.cancelled(reservation));
     }
 }
\ No newline at end of file
@@ -1,21 +1,49 @@
 package com.hotelreservation.service;
 
+import com.hotelreservation.dto.CursorPage;
 import com.hotelreservation.model.Suite;
 import com.hotelreservation.repository.SuiteRepository;
+import com.hotelreservation.repository.VersionedUpdates;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "hotel.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class SuiteService {
 
     private final SuiteRepository suiteRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final BookingCalendar bookingCalendar;
+    private final LookupCache lookupCache;
+    private final CatalogVersion catalogVersion;
+    private final VersionedUpdates versionedUpdates;
 
     @Autowired
-    public SuiteService(SuiteRepository suiteRepository) {
+    public SuiteService(
+            SuiteRepository suiteRepository,
+            AvailabilityIndex availabilityIndex,
+            BookingCalendar bookingCalendar,
+            LookupCache lookupCache,
+            CatalogVersion catalogVersion,
+            VersionedUpdates versionedUpdates) {
         this.suiteRepository = suiteRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.bookingCalendar = bookingCalendar;
+        this.lookupCache = lookupCache;
+        this.catalogVersion = catalogVersion;
+        this.versionedUpdates = versionedUpdates;
     }
 
     // Obtener todas las suites
@@ -23,9 +51,29 @@ public class SuiteService {
         return suiteRepository.findAll();
     }
 
+    // Obtener una página de suites ordenada por ID
+    public CursorPage<Suite> getSuitesPage(String cursor, Integer size) {
+        int pageSize = PageCursor.pageSize(size);
+        PageRequest request = PageRequest.of(0, pageSize + 1, Sort.by("id"));
+        List<Suite> fetched = cursor == null
+                ? suiteRepository.findAllBy(request)
+                : suiteRepository.findByIdGreaterThan(PageCursor.decode(cursor, "id", 1)[0], request);
+        return PageCursor.page(fetched, pageSize, item -> PageCursor.encode("id", item.getId()));
+    }
+
+    // Recorrer todos los suites sin cargarlos en memoria; el llamador debe cerrar el stream
+    public Stream<Suite> streamSuites() {
+        return suiteRepository.streamAllBy();
+    }
+
     // Obtener una suite por ID
     public Optional<Suite> getSuiteById(String id) {
-        return suiteRepository.findById(id);
+        return lookupCache.getSuite(id, suiteRepository::findById);
+    }
+
+    // Obtener varias suites por ID, indexadas por ID; las que no existen se omiten
+    public Map<String, Suite> getSuitesById(Set<String> ids) {
+        return lookupCache.getSuites(ids, suiteRepository::findAllById);
     }
 
     // Obtener suites por tipo
@@ -48,31 +96,65 @@ public class SuiteService {
         return suiteRepository.findByPriceBetween(minPrice, maxPrice);
     }
 
+    // Indicar si una suite se ofrece y está libre en todo el rango (ambos extremos inclusivos);
+    // vacío si la suite no existe
+    public Optional<Boolean> isAvailable(String id, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La fecha inicial debe ser anterior a la fecha final");
+        }
+        return getSuiteById(id).map(suite -> suite.isAvailable() && !bookingCalendar.isBooked(id, from, to));
+    }
+
+    // Buscar suites libres en un rango de fechas, con filtros opcionales de tipo y precio
+    public List<Suite> searchAvailableSuites(
+            LocalDate from, LocalDate to, String type, Double minPrice, Double maxPrice) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La fecha inicial debe ser anterior a la fecha final");
+        }
+        return availabilityIndex.findAvailable(from, to, type, minPrice, maxPrice)
+                .orElseGet(() -> suiteRepository.findAll().stream()
+                        // Fuera del horizonte indexado se consulta el calendario suite por suite
+                        .filter(Suite::isAvailable)
+                        .filter(suite -> type == null || type.equals(suite.getType()))
+                        .filter(suite -> minPrice == null || suite.getPrice() >= minPrice)
+                        .filter(suite -> maxPrice == null || suite.getPrice() <= maxPrice)
+                        .filter(suite -> !bookingCalendar.isBooked(suite.getId(), from, to))
+                        .toList());
+    }
+
     // Crear una nueva suite
     public Suite createSuite(Suite suite) {
-        return suiteRepository.save(suite);
+        suite.setVersion(null);
+        Suite savedSuite = suiteRepository.save(suite);
+        availabilityIndex.putSuite(savedSuite);
+        catalogVersion.bump();
+        return savedSuite;
     }
 
-    // Actualizar una suite existente
+    // Actualizar una suite existente; si suiteDetails trae versión, debe ser la vigente
     public Suite updateSuite(String id, Suite suiteDetails) {
-        return suiteRepository.findById(id)
-                .map(existingSuite -> {
-                    existingSuite.setType(suiteDetails.getType());
-                    existingSuite.setPrice(suiteDetails.getPrice());
-                    existingSuite.setAvailable(suiteDetails.isAvailable());
-                    return suiteRepository.save(existingSuite);
-                })
-                .orElseThrow(() -> new RuntimeException("Suite no encontrada con id: " + id));
+        return update(id, existingSuite -> {
+            VersionedUpdates.requireVersion(suiteDetails.getVersion(), existingSuite.getVersion(), id);
+            return new Update()
+                    .set("type", suiteDetails.getType())
+                    .set("price", suiteDetails.getPrice())
+                    .set("available", suiteDetails.isAvailable());
+        });
     }
 
     // Actualizar disponibilidad de una suite
     public Suite updateAvailability(String id, boolean available) {
-        return suiteRepository.findById(id)
-                .map(suite -> {
-                    suite.setAvailable(available);
-                    return suiteRepository.save(suite);
-                })
-                .orElseThrow(() -> new RuntimeException("Suite no encontrada con id: " + id));
+        return update(id, suite -> new Update().set("available", available));
+    }
+
+    private Suite update(String id, Function<Suite, Update> changes) {
+        Suite savedSuite = versionedUpdates.update(Suite.class, id, Suite::getVersion, changes)
+                .orElseThrow(() -> new RuntimeException("Suite no encontrada con id: " + id))
+                .after();
+        lookupCache.putSuite(savedSuite);
+        availabilityIndex.putSuite(savedSuite);
+        catalogVersion.bump();
+        return savedSuite;
     }
 
     // Eliminar una suite
@@ -81,5 +163,8 @@ public class SuiteService {
             throw new RuntimeException("Suite no encontrada con id: " + id);
         }
         suiteRepository.deleteById(id);
+        lookupCache.evictSuite(id);
+        availabilityIndex.removeSuite(id);
+        catalogVersion.bump();
     }
 }
\ No newline at end of file
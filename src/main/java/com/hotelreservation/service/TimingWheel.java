@@ -0,0 +1,73 @@
+package com.hotelreservation.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Rueda de tiempo con hash (hashed timing wheel) para vencimientos masivos.
+// Cada elemento cae en la ranura de su tick de vencimiento módulo el número de ranuras; programar es O(1)
+// y avanzar un tick solo revisa una ranura, sin importar cuántos elementos haya en total. Los vencimientos
+// más lejanos que una vuelta completa esperan en su ranura las vueltas que les falten.
+// No hay cancelación: quien programa descarta al vencer los elementos que ya no le interesan.
+final class TimingWheel<T> {
+    private final long tickMillis;
+    private final ArrayDeque<Entry<T>>[] slots;
+    private final int mask;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentTick;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TimingWheel(long tickMillis, int slotCount, long nowMillis) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("El número de ranuras debe ser potencia de 2");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayDeque[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.mask = slotCount - 1;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    // Programar el vencimiento; un instante ya pasado vence en el siguiente tick
+    void schedule(T item, long deadlineMillis) {
+        long tick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        lock.lock();
+        try {
+            tick = Math.max(tick, currentTick + 1);
+            slots[(int) (tick & mask)].add(new Entry<>(item, tick));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Avanzar hasta el instante dado y devolver lo vencido. Tras una pausa larga se recorre cada ranura
+    // una sola vez, no una por tick atrasado.
+    List<T> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            long steps = Math.min(target - currentTick, slots.length);
+            for (long step = 1; step <= steps; step++) {
+                Iterator<Entry<T>> entries = slots[(int) ((currentTick + step) & mask)].iterator();
+                while (entries.hasNext()) {
+                    Entry<T> entry = entries.next();
+                    if (entry.tick() <= target) {
+                        entries.remove();
+                        expired.add(entry.item());
+                    }
+                }
+            }
+            currentTick = Math.max(currentTick, target);
+        } finally {
+            lock.unlock();
+        }
+        return expired;
+    }
+
+    private record Entry<T>(T item, long tick) {}
+}
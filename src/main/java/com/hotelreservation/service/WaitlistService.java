@@ -0,0 +1,253 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.dto.ReservationHold;
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.model.WaitlistEntry;
+import com.hotelreservation.model.WaitlistStatus;
+import com.hotelreservation.repository.VersionedUpdates;
+import com.hotelreservation.repository.WaitlistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Lista de espera para fechas agotadas.
+// Cancelar, acortar o mover una reservación, y liberar o vencer un bloqueo, publican NightsFreed; aquí solo
+// se encolan. El asignador toma lotes de la cola, busca con una consulta las solicitudes en espera que se
+// traslapan con cualquiera de esas noches y, en orden de llegada, ofrece a cada una un bloqueo temporal en
+// la primera suite liberada que le sirva. El cliente consulta su solicitud y confirma el bloqueo como
+// cualquier otro, y la solicitud pasa a CONFIRMED. Si lo libera o lo deja vencer, la solicitud vuelve a
+// WAITING y esas noches vuelven a la cola para el siguiente; a ella no se le ofrecen otra vez en ese lote.
+// Todos los cambios de estado son escrituras condicionadas a la versión, así que dos instancias no
+// pueden ofrecerle dos bloqueos. Como los bloqueos, solo existe en el perfil bloqueante.
+@Service
+@Profile("!reactive")
+public class WaitlistService {
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+
+    private final WaitlistRepository waitlistRepository;
+    private final ReservationService reservationService;
+    private final CustomerService customerService;
+    private final SuiteService suiteService;
+    private final BookingCalendar bookingCalendar;
+    private final VersionedUpdates versionedUpdates;
+    private final int batchSize;
+    private final Counter offers;
+    private final Queue<Freed> pending = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public WaitlistService(
+            WaitlistRepository waitlistRepository,
+            ReservationService reservationService,
+            CustomerService customerService,
+            SuiteService suiteService,
+            BookingCalendar bookingCalendar,
+            VersionedUpdates versionedUpdates,
+            MeterRegistry meterRegistry,
+            @Value("${hotel.waitlist.batch-size:200}") int batchSize) {
+        this.waitlistRepository = waitlistRepository;
+        this.reservationService = reservationService;
+        this.customerService = customerService;
+        this.suiteService = suiteService;
+        this.bookingCalendar = bookingCalendar;
+        this.versionedUpdates = versionedUpdates;
+        this.batchSize = batchSize;
+        this.offers = meterRegistry.counter("hotel.waitlist.offers");
+        meterRegistry.gaugeCollectionSize("hotel.waitlist.pending", List.of(), pending);
+    }
+
+    // Registrar una solicitud para una suite concreta (suiteId) o para cualquier suite de un tipo (suiteType)
+    public WaitlistEntry join(WaitlistEntry entry) {
+        if (entry.getCheckInDate() == null || entry.getCheckOutDate() == null
+                || !entry.getCheckInDate().isBefore(entry.getCheckOutDate())) {
+            throw new IllegalArgumentException("La fecha de entrada debe ser anterior a la fecha de salida");
+        }
+        if (entry.getCheckInDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("La fecha de entrada ya pasó");
+        }
+        if ((entry.getSuiteId() == null) == (entry.getSuiteType() == null)) {
+            throw new IllegalArgumentException("Indique suiteId o suiteType, no ambos");
+        }
+        if (entry.getCustomerId() == null || customerService.getCustomerById(entry.getCustomerId()).isEmpty()) {
+            throw new IllegalArgumentException("Cliente no encontrado con id: " + entry.getCustomerId());
+        }
+        if (entry.getSuiteId() != null && suiteService.getSuiteById(entry.getSuiteId()).isEmpty()) {
+            throw new IllegalArgumentException("Suite no encontrada con id: " + entry.getSuiteId());
+        }
+        entry.setId(null);
+        entry.setVersion(null);
+        entry.setStatus(WaitlistStatus.WAITING);
+        entry.setHoldId(null);
+        entry.setOfferedSuiteId(null);
+        entry.setOfferExpiresAt(null);
+        WaitlistEntry saved = waitlistRepository.insert(entry);
+        logger.info("Waitlist entry {} created for customer {}", saved.getId(), saved.getCustomerId());
+        return saved;
+    }
+
+    // Obtener una solicitud; el cliente la consulta para saber si ya tiene un bloqueo ofrecido
+    public Optional<WaitlistEntry> getEntry(String id) {
+        return waitlistRepository.findById(id);
+    }
+
+    // Retirar una solicitud; si tenía un bloqueo ofrecido en esta instancia, se libera
+    public void leave(String id) {
+        WaitlistEntry entry = waitlistRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Solicitud no encontrada con id: " + id));
+        waitlistRepository.deleteById(id);
+        if (entry.getHoldId() != null) {
+            reservationService.releaseHold(entry.getHoldId());
+        }
+    }
+
+    // Encolar las noches; si eran de un bloqueo ofrecido, su solicitud vuelve a esperar
+    @EventListener
+    public void onNightsFreed(NightsFreed freed) {
+        String lapsedEntryId = null;
+        if (freed.holdId() != null) {
+            lapsedEntryId = updateByHold(freed.holdId(), WaitlistStatus.OFFERED, new Update()
+                    .set("status", WaitlistStatus.WAITING)
+                    .unset("holdId")
+                    .unset("offeredSuiteId")
+                    .unset("offerExpiresAt"))
+                    .map(WaitlistEntry::getId)
+                    .orElse(null);
+            if (lapsedEntryId != null) {
+                logger.info("Waitlist entry {} is waiting again after hold {} was freed", lapsedEntryId, freed.holdId());
+            }
+        }
+        pending.add(new Freed(freed, lapsedEntryId));
+    }
+
+    // Un bloqueo ofrecido se confirmó: la solicitud queda cumplida con la reservación del mismo ID que holdId
+    @EventListener
+    public void onHoldConfirmed(HoldConfirmed confirmed) {
+        updateByHold(confirmed.holdId(), WaitlistStatus.OFFERED, new Update()
+                .set("status", WaitlistStatus.CONFIRMED)
+                .unset("offerExpiresAt"))
+                .ifPresent(entry -> logger.info("Waitlist entry {} confirmed hold {}", entry.getId(), confirmed.holdId()));
+    }
+
+    // Cambiar la solicitud que tiene el bloqueo si sigue en el estado esperado, releyéndola si otro escritor
+    // ganó; vacío si no hay tal solicitud
+    private Optional<WaitlistEntry> updateByHold(String holdId, WaitlistStatus expected, Update update) {
+        for (int attempt = 1; attempt <= versionedUpdates.maxAttempts(); attempt++) {
+            Optional<WaitlistEntry> entry = waitlistRepository.findByHoldId(holdId)
+                    .filter(found -> found.getStatus() == expected);
+            if (entry.isEmpty()) {
+                return Optional.empty();
+            }
+            Optional<WaitlistEntry> updated = versionedUpdates.updateIfVersion(WaitlistEntry.class,
+                    entry.get().getId(), entry.get().getVersion(), update);
+            if (updated.isPresent()) {
+                return updated;
+            }
+        }
+        logger.warn("Waitlist entry for hold {} changed concurrently; left as it was", holdId);
+        return Optional.empty();
+    }
+
+    // Asignar las noches liberadas desde la última pasada, hasta batchSize rangos por lote
+    @Scheduled(fixedDelayString = "${hotel.waitlist.match-interval-ms:1000}")
+    public void match() {
+        List<Freed> batch = new ArrayList<>();
+        Freed freed;
+        while (batch.size() < batchSize && (freed = pending.poll()) != null) {
+            batch.add(freed);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        LocalDate start = batch.get(0).nights().checkInDate();
+        LocalDate end = batch.get(0).nights().checkOutDate();
+        for (Freed queued : batch) {
+            NightsFreed nights = queued.nights();
+            start = nights.checkInDate().isBefore(start) ? nights.checkInDate() : start;
+            end = nights.checkOutDate().isAfter(end) ? nights.checkOutDate() : end;
+        }
+        LocalDate today = LocalDate.now();
+        int offered = 0;
+        List<WaitlistEntry> waiting = waitlistRepository
+                .findByStatusAndCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqualOrderByIdAsc(
+                        WaitlistStatus.WAITING, end, start);
+        for (WaitlistEntry entry : waiting) {
+            if (entry.getCheckInDate().isBefore(today)) {
+                continue;
+            }
+            Set<String> tried = new HashSet<>();
+            for (Freed queued : batch) {
+                NightsFreed nights = queued.nights();
+                if (!entry.getId().equals(queued.lapsedEntryId()) && matches(entry, nights)
+                        && tried.add(nights.suiteId()) && offer(entry, nights.suiteId())) {
+                    offered++;
+                    break;
+                }
+            }
+        }
+        logger.info("Waitlist matched {} freed ranges: {} offers", batch.size(), offered);
+    }
+
+    // Misma suite o mismo tipo, y fechas que se tocan con las liberadas; como en el calendario, el día de
+    // salida cuenta como ocupado
+    private static boolean matches(WaitlistEntry entry, NightsFreed nights) {
+        boolean suite = entry.getSuiteId() != null
+                ? entry.getSuiteId().equals(nights.suiteId())
+                : entry.getSuiteType().equals(nights.suiteType());
+        return suite
+                && !entry.getCheckInDate().isAfter(nights.checkOutDate())
+                && !nights.checkInDate().isAfter(entry.getCheckOutDate());
+    }
+
+    // Bloquear la suite para el cliente y marcar la solicitud como ofrecida; si otra instancia ya la
+    // cambió, el bloqueo se libera
+    private boolean offer(WaitlistEntry entry, String suiteId) {
+        // Las noches liberadas pueden cubrir solo parte de la estancia; sin el rango completo no se intenta
+        if (bookingCalendar.isBooked(suiteId, entry.getCheckInDate(), entry.getCheckOutDate())) {
+            return false;
+        }
+        Reservation reservation = new Reservation();
+        reservation.setCustomerId(entry.getCustomerId());
+        reservation.setSuiteId(suiteId);
+        reservation.setCheckInDate(entry.getCheckInDate());
+        reservation.setCheckOutDate(entry.getCheckOutDate());
+        ReservationHold hold;
+        try {
+            hold = reservationService.placeHold(reservation);
+        } catch (RuntimeException e) {
+            logger.warn("Waitlist entry {} could not be offered suite {}: {}", entry.getId(), suiteId, e.getMessage());
+            return false;
+        }
+        Optional<WaitlistEntry> updated = versionedUpdates.updateIfVersion(WaitlistEntry.class, entry.getId(),
+                entry.getVersion(), new Update()
+                        .set("status", WaitlistStatus.OFFERED)
+                        .set("holdId", hold.getId())
+                        .set("offeredSuiteId", suiteId)
+                        .set("offerExpiresAt", hold.getExpiresAt()));
+        if (updated.isEmpty()) {
+            reservationService.releaseHold(hold.getId());
+            return false;
+        }
+        offers.increment();
+        logger.info("Waitlist entry {} offered hold {} on suite {}", entry.getId(), hold.getId(), suiteId);
+        return true;
+    }
+
+    // Noches liberadas en cola, con la solicitud cuyo bloqueo las soltó, si la hay
+    private record Freed(NightsFreed nights, String lapsedEntryId) {}
+}
@@ -0,0 +1,96 @@
+package com.hotelreservation.controller;
+
+import com.hotelreservation.service.InMemoryIdempotencyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyWebFilterTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyWebFilter filter;
+
+    // Controlador simulado: devuelve 201 con el mismo cuerpo que recibió
+    private final WebFilterChain chain = exchange -> DataBufferUtils.join(exchange.getRequest().getBody())
+            .flatMap(buffer -> {
+                executions.incrementAndGet();
+                exchange.getResponse().setStatusCode(HttpStatus.CREATED);
+                exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                return exchange.getResponse().writeWith(Mono.just(buffer));
+            });
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyWebFilter(
+                new InMemoryIdempotencyStore(new SimpleMeterRegistry(), 100, Duration.ofHours(1)),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void retryWithSameKeyReplaysStoredResponse() {
+        MockServerWebExchange first = post("key-1", "{\"suiteId\":\"a\"}");
+        filter.filter(first, chain).block(TIMEOUT);
+        MockServerWebExchange retry = post("key-1", "{\"suiteId\":\"a\"}");
+        filter.filter(retry, chain).block(TIMEOUT);
+
+        assertThat(executions).hasValue(1);
+        assertThat(first.getResponse().getBodyAsString().block(TIMEOUT)).isEqualTo("{\"suiteId\":\"a\"}");
+        assertThat(retry.getResponse().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getResponse().getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getResponse().getBodyAsString().block(TIMEOUT)).isEqualTo("{\"suiteId\":\"a\"}");
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() {
+        filter.filter(post("key-2", "{\"suiteId\":\"a\"}"), chain).block(TIMEOUT);
+
+        assertThatThrownBy(() -> filter.filter(post("key-2", "{\"suiteId\":\"b\"}"), chain).block(TIMEOUT))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void failedRequestReleasesKey() {
+        WebFilterChain failing = exchange -> Mono.error(new IllegalStateException("boom"));
+        assertThatThrownBy(() -> filter.filter(post("key-3", "{}"), failing).block(TIMEOUT))
+                .isInstanceOf(IllegalStateException.class);
+
+        filter.filter(post("key-3", "{}"), chain).block(TIMEOUT);
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void requestWithoutKeyPassesThrough() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/reservations")
+                .body("{}"));
+        filter.filter(exchange, chain).block(TIMEOUT);
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/api/reservations").body("{}")), chain)
+                .block(TIMEOUT);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    private static MockServerWebExchange post(String key, String body) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/reservations")
+                .header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body));
+    }
+}
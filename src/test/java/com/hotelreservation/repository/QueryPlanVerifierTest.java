@@ -0,0 +1,62 @@
+package com.hotelreservation.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Mantiene QueryPlanVerifier al día con los repositorios: cada método de consulta declarado debe tener su
+// entrada, y cada entrada de un repositorio debe corresponder a un método que exista
+class QueryPlanVerifierTest {
+
+    @Test
+    void everyRepositoryQueryMethodIsVerified() throws ClassNotFoundException {
+        Set<String> declared = declaredQueryMethods();
+        Set<String> checked = QueryPlanVerifier.queries().keySet();
+
+        assertThat(declared).isNotEmpty();
+        assertThat(checked).containsAll(declared);
+    }
+
+    @Test
+    void everyVerifiedRepositoryQueryStillExists() throws ClassNotFoundException {
+        Set<String> declared = declaredQueryMethods();
+        Set<String> repositories = new TreeSet<>();
+        declared.forEach(name -> repositories.add(name.substring(0, name.indexOf('.'))));
+
+        for (String name : QueryPlanVerifier.queries().keySet()) {
+            if (repositories.contains(name.substring(0, name.indexOf('.')))) {
+                assertThat(declared).as("repository method for %s", name).contains(name);
+            }
+        }
+    }
+
+    // Métodos declarados por las interfaces de repositorio del paquete, como "Repositorio.método"
+    private static Set<String> declaredQueryMethods() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition definition) {
+                return definition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+        Set<String> methods = new TreeSet<>();
+        for (BeanDefinition definition : scanner.findCandidateComponents(QueryPlanVerifier.class.getPackageName())) {
+            Class<?> repository = Class.forName(definition.getBeanClassName());
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isDefault() && !QueryPlanVerifier.FULL_SCAN_METHODS.contains(method.getName())) {
+                    methods.add(repository.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        return methods;
+    }
+}
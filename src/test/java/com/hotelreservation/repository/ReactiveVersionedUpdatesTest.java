@@ -0,0 +1,93 @@
+package com.hotelreservation.repository;
+
+import com.hotelreservation.model.Suite;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveVersionedUpdatesTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String ID = "suite-1";
+
+    private ReactiveMongoTemplate mongoTemplate;
+    private ReactiveVersionedUpdates versionedUpdates;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = Mockito.mock(ReactiveMongoTemplate.class);
+        versionedUpdates = new ReactiveVersionedUpdates(mongoTemplate, 3);
+        when(mongoTemplate.findById(ID, Suite.class)).thenReturn(Mono.fromSupplier(() -> suite(4L, 100.0)));
+    }
+
+    @Test
+    void retriesWithFreshReadWhenAnotherWriterWins() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Suite.class)))
+                .thenReturn(Mono.empty(), Mono.just(suite(5L, 120.0)));
+
+        VersionedUpdates.Change<Suite> change = versionedUpdates
+                .update(Suite.class, ID, Suite::getVersion, suite -> new Update().set("price", 120.0))
+                .block(TIMEOUT);
+
+        assertThat(change.after().getPrice()).isEqualTo(120.0);
+        assertThat(change.before().getVersion()).isEqualTo(4L);
+        verify(mongoTemplate, times(2)).findById(ID, Suite.class);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Suite.class)))
+                .thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> versionedUpdates
+                .update(Suite.class, ID, Suite::getVersion, suite -> new Update().set("price", 120.0))
+                .block(TIMEOUT))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        verify(mongoTemplate, times(3)).findById(ID, Suite.class);
+    }
+
+    @Test
+    void staleClientVersionIsNotRetried() {
+        assertThatThrownBy(() -> versionedUpdates
+                .update(Suite.class, ID, Suite::getVersion, suite -> {
+                    VersionedUpdates.requireVersion(3L, suite.getVersion(), ID);
+                    return new Update().set("price", 120.0);
+                })
+                .block(TIMEOUT))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        verify(mongoTemplate, times(1)).findById(ID, Suite.class);
+        verify(mongoTemplate, never()).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Suite.class));
+    }
+
+    @Test
+    void missingDocumentIsEmpty() {
+        when(mongoTemplate.findById("missing", Suite.class)).thenReturn(Mono.empty());
+
+        assertThat(versionedUpdates
+                .update(Suite.class, "missing", Suite::getVersion, suite -> new Update().set("price", 120.0))
+                .blockOptional(TIMEOUT)).isEmpty();
+    }
+
+    private static Suite suite(Long version, double price) {
+        Suite suite = new Suite("Standard", price, true);
+        suite.setId(ID);
+        suite.setVersion(version);
+        return suite;
+    }
+}
@@ -0,0 +1,87 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.dto.ReportPeriod;
+import com.hotelreservation.dto.RevenueStats;
+import com.hotelreservation.model.DailyOccupancy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceTest {
+    private static final LocalDate MONTH_START = LocalDate.now().withDayOfMonth(1).minusMonths(2);
+    private static final LocalDate MONTH_END = MONTH_START.plusMonths(1).minusDays(1);
+
+    private OccupancyCounters occupancyCounters;
+    private AnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        occupancyCounters = Mockito.mock(OccupancyCounters.class);
+        when(occupancyCounters.isEnabled()).thenReturn(true);
+        when(occupancyCounters.find(any(), any())).thenReturn(List.of(counter(MONTH_START.plusDays(3), 2, 300.0)));
+        analyticsService = new AnalyticsService(Mockito.mock(MongoTemplate.class), occupancyCounters,
+                new SimpleMeterRegistry(), 1096, 100, Duration.ofDays(1));
+    }
+
+    @Test
+    void closedPeriodIsServedFromCache() {
+        analyticsService.getRevenue(MONTH_START, MONTH_END, ReportPeriod.MONTH);
+        List<RevenueStats> cached = analyticsService.getRevenue(MONTH_START, MONTH_END, ReportPeriod.MONTH);
+
+        assertThat(cached).singleElement().satisfies(stats -> assertThat(stats.getNightsSold()).isEqualTo(2));
+        verify(occupancyCounters, times(1)).find(MONTH_START, MONTH_END);
+    }
+
+    @Test
+    void changeInsideClosedPeriodInvalidatesIt() {
+        analyticsService.getRevenue(MONTH_START, MONTH_END, ReportPeriod.MONTH);
+        when(occupancyCounters.find(any(), any())).thenReturn(List.of());
+
+        analyticsService.onOccupancyChanged(new OccupancyChanged(MONTH_END, MONTH_END.plusDays(2)));
+        List<RevenueStats> refreshed = analyticsService.getRevenue(MONTH_START, MONTH_END, ReportPeriod.MONTH);
+
+        assertThat(refreshed).isEmpty();
+        verify(occupancyCounters, times(2)).find(MONTH_START, MONTH_END);
+    }
+
+    @Test
+    void changeOutsideClosedPeriodKeepsIt() {
+        analyticsService.getRevenue(MONTH_START, MONTH_END, ReportPeriod.MONTH);
+
+        analyticsService.onOccupancyChanged(new OccupancyChanged(MONTH_END.plusDays(1), MONTH_END.plusDays(5)));
+        analyticsService.getRevenue(MONTH_START, MONTH_END, ReportPeriod.MONTH);
+
+        verify(occupancyCounters, times(1)).find(MONTH_START, MONTH_END);
+    }
+
+    @Test
+    void rebuildInvalidatesEveryPeriod() {
+        analyticsService.getRevenue(MONTH_START, MONTH_END, ReportPeriod.MONTH);
+
+        analyticsService.onOccupancyChanged(OccupancyChanged.all());
+        analyticsService.getRevenue(MONTH_START, MONTH_END, ReportPeriod.MONTH);
+
+        verify(occupancyCounters, times(2)).find(MONTH_START, MONTH_END);
+    }
+
+    private static DailyOccupancy counter(LocalDate day, long nights, double revenue) {
+        DailyOccupancy counter = new DailyOccupancy();
+        counter.setDay(day);
+        counter.setSuiteType("Standard");
+        counter.setNights(nights);
+        counter.setRevenue(revenue);
+        return counter;
+    }
+}
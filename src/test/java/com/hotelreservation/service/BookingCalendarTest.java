@@ -0,0 +1,210 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.journal.BookingJournal;
+import com.hotelreservation.model.Customer;
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.model.Suite;
+import com.hotelreservation.repository.ReservationRepository;
+import com.hotelreservation.repository.SuiteRepository;
+import com.hotelreservation.repository.VersionedUpdates;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Prueba de carga de la admisión de reservaciones: muchos hilos piden la misma suite y fechas a la vez
+// y solo uno puede ganar
+class BookingCalendarTest {
+    private static final int THREADS = 64;
+
+    private Suite suite;
+    private ReservationRepository reservationRepository;
+    private AvailabilityIndex availabilityIndex;
+    private BookingCalendar bookingCalendar;
+    private LocalDate checkIn;
+
+    @BeforeEach
+    void setUp() {
+        suite = new Suite("Deluxe", 180, true);
+        suite.setId(new ObjectId().toHexString());
+        SuiteRepository suiteRepository = mock(SuiteRepository.class);
+        when(suiteRepository.findAll()).thenReturn(List.of(suite));
+        reservationRepository = mock(ReservationRepository.class);
+        when(reservationRepository.findAll()).thenReturn(List.of());
+        when(reservationRepository.insert(any(Reservation.class))).thenAnswer(call -> call.getArgument(0));
+
+        availabilityIndex = new AvailabilityIndex(suiteRepository, 366);
+        availabilityIndex.load();
+        bookingCalendar = new BookingCalendar(reservationRepository, availabilityIndex);
+        bookingCalendar.load();
+        checkIn = LocalDate.now().plusDays(10);
+    }
+
+    @Test
+    void concurrentTryReserveForSameDatesAdmitsExactlyOne() throws Exception {
+        List<Boolean> results = race(i -> bookingCalendar.tryReserve(
+                reservation(new ObjectId().toHexString(), checkIn, checkIn.plusDays(3))));
+
+        assertThat(results).containsOnlyOnce(true);
+        assertThat(results.stream().filter(admitted -> !admitted)).hasSize(THREADS - 1);
+        assertThat(availabilityIndex.findAvailable(checkIn, checkIn.plusDays(3), null, null, null))
+                .hasValueSatisfying(free -> assertThat(free).isEmpty());
+    }
+
+    @Test
+    void concurrentCreateReservationForSameDatesAdmitsExactlyOne() throws Exception {
+        Customer customer = new Customer("Ana", "ana@example.com", "555-0100");
+        customer.setId(new ObjectId().toHexString());
+        CustomerService customerService = mock(CustomerService.class);
+        when(customerService.getCustomerById(customer.getId())).thenReturn(Optional.of(customer));
+        SuiteService suiteService = mock(SuiteService.class);
+        when(suiteService.getSuiteById(suite.getId())).thenReturn(Optional.of(suite));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReservationHolds reservationHolds = new ReservationHolds(bookingCalendar, event -> {}, meterRegistry,
+                Duration.ofMinutes(10), 1000);
+        ReservationService reservationService = new ReservationService(reservationRepository, customerService,
+                suiteService, bookingCalendar, new ReservationMetrics(meterRegistry), new OccupancyCounters(null, event -> {}, false),
+                new VersionedUpdates(null, 3), reservationHolds, event -> {},
+                new BookingJournal(meterRegistry, false, Path.of("journal"), 1 << 20, Duration.ofMillis(10), false),
+                new NightClaims(null, false, Duration.ofMinutes(1)), true, 500);
+
+        List<Boolean> results = race(i -> {
+            Reservation reservation = new Reservation();
+            reservation.setCustomerId(customer.getId());
+            reservation.setSuiteId(suite.getId());
+            reservation.setCheckInDate(checkIn);
+            reservation.setCheckOutDate(checkIn.plusDays(3));
+            try {
+                reservationService.createReservation(reservation);
+                return true;
+            } catch (ReservationConflictException e) {
+                return false;
+            }
+        });
+
+        assertThat(results).containsOnlyOnce(true);
+        assertThat(results.stream().filter(admitted -> !admitted)).hasSize(THREADS - 1);
+        verify(reservationRepository, times(1)).insert(any(Reservation.class));
+        assertThat(meterRegistry.counter("hotel.reservations.conflicts").count()).isEqualTo(THREADS - 1);
+    }
+
+    @Test
+    void availabilityIndexTracksBookingsAndCancellations() {
+        Reservation first = reservation("a", checkIn, checkIn.plusDays(2));
+        Reservation second = reservation("b", checkIn.plusDays(5), checkIn.plusDays(6));
+        assertThat(bookingCalendar.tryReserve(first)).isTrue();
+        assertThat(bookingCalendar.tryReserve(second)).isTrue();
+        assertThat(availabilityIndex.findAvailable(checkIn.plusDays(3), checkIn.plusDays(4), null, null, null))
+                .hasValueSatisfying(free -> assertThat(free).containsExactly(suite));
+
+        bookingCalendar.remove(first);
+        assertThat(availabilityIndex.findAvailable(checkIn, checkIn.plusDays(4), null, null, null))
+                .hasValueSatisfying(free -> assertThat(free).containsExactly(suite));
+        assertThat(availabilityIndex.findAvailable(checkIn, checkIn.plusDays(5), null, null, null))
+                .hasValueSatisfying(free -> assertThat(free).isEmpty());
+    }
+
+    @Test
+    void availabilityIndexFollowsDateChanges() {
+        Reservation stay = reservation("a", checkIn, checkIn.plusDays(3));
+        assertThat(bookingCalendar.tryReserve(stay)).isTrue();
+
+        assertThat(bookingCalendar.tryUpdate(reservation("a", checkIn.plusDays(2), checkIn.plusDays(5)))).isTrue();
+        assertThat(availabilityIndex.findAvailable(checkIn, checkIn.plusDays(1), null, null, null))
+                .hasValueSatisfying(free -> assertThat(free).containsExactly(suite));
+        assertThat(availabilityIndex.findAvailable(checkIn.plusDays(5), checkIn.plusDays(5), null, null, null))
+                .hasValueSatisfying(free -> assertThat(free).isEmpty());
+    }
+
+    @Test
+    void cancellingAnOverlappingLegacyBookingKeepsSharedDaysBooked() {
+        // Datos antiguos con traslapes entran al cargar o al aplicar cambios de otra instancia, sin verificar
+        bookingCalendar.add(reservation("a", checkIn, checkIn.plusDays(4)));
+        bookingCalendar.add(reservation("b", checkIn.plusDays(3), checkIn.plusDays(6)));
+
+        bookingCalendar.removeById("a");
+        assertThat(availabilityIndex.findAvailable(checkIn, checkIn.plusDays(2), null, null, null))
+                .hasValueSatisfying(free -> assertThat(free).containsExactly(suite));
+        assertThat(availabilityIndex.findAvailable(checkIn.plusDays(3), checkIn.plusDays(3), null, null, null))
+                .hasValueSatisfying(free -> assertThat(free).isEmpty());
+    }
+
+    @Test
+    void reindexDropsBookingsThatEnded() {
+        bookingCalendar.add(reservation("past", LocalDate.now().minusDays(5), LocalDate.now().minusDays(2)));
+        bookingCalendar.reindex();
+
+        assertThat(bookingCalendar.isBooked(suite.getId(), LocalDate.now().minusDays(4), LocalDate.now().minusDays(3)))
+                .isFalse();
+    }
+
+    @Test
+    void checkOutDayCountsAsBooked() {
+        assertThat(bookingCalendar.tryReserve(reservation("a", checkIn, checkIn.plusDays(2)))).isTrue();
+        // Los extremos son inclusivos: una estancia que entra el día de salida de otra se traslapa
+        assertThat(bookingCalendar.tryReserve(reservation("b", checkIn.plusDays(2), checkIn.plusDays(4)))).isFalse();
+        assertThat(bookingCalendar.tryReserve(reservation("c", checkIn.minusDays(2), checkIn))).isFalse();
+        // El día siguiente a la salida ya está libre
+        assertThat(bookingCalendar.tryReserve(reservation("d", checkIn.plusDays(3), checkIn.plusDays(5)))).isTrue();
+        assertThat(bookingCalendar.tryReserve(reservation("e", checkIn.minusDays(3), checkIn.minusDays(1)))).isTrue();
+    }
+
+    // Soltar todas las tareas a la vez desde una barrera y devolver sus resultados
+    private static List<Boolean> race(IndexedTask task) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int index = i;
+                Callable<Boolean> call = () -> {
+                    start.await();
+                    return task.run(index);
+                };
+                futures.add(executor.submit(call));
+            }
+            start.countDown();
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Reservation reservation(String id, LocalDate from, LocalDate to) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setSuiteId(suite.getId());
+        reservation.setCheckInDate(from);
+        reservation.setCheckOutDate(to);
+        return reservation;
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        boolean run(int index) throws Exception;
+    }
+}
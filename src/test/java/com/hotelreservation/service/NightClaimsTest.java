@@ -0,0 +1,145 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.NightClaim;
+import com.hotelreservation.model.Reservation;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NightClaimsTest {
+    private static final LocalDate DAY = LocalDate.now().plusDays(10);
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulk;
+    private NightClaims nightClaims;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = Mockito.mock(MongoTemplate.class);
+        bulk = Mockito.mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NightClaim.class)).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenReturn(bulk);
+        nightClaims = new NightClaims(mongoTemplate, true, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void claimInsertsOneDocumentPerDay() {
+        assertThat(nightClaims.claim(reservation("r1", DAY, DAY.plusDays(2)))).isTrue();
+
+        ArgumentCaptor<List<NightClaim>> inserted = captor();
+        verify(bulk).insert(inserted.capture());
+        assertThat(inserted.getValue()).extracting(NightClaim::getId).containsExactly(
+                NightClaim.idOf("s1", DAY), NightClaim.idOf("s1", DAY.plusDays(1)), NightClaim.idOf("s1", DAY.plusDays(2)));
+    }
+
+    @Test
+    void dayClaimedByAnotherReservationIsAConflict() {
+        when(bulk.execute()).thenThrow(duplicateAt(1));
+        when(mongoTemplate.findById(NightClaim.idOf("s1", DAY.plusDays(1)), NightClaim.class))
+                .thenReturn(claim("r2", DAY.plusDays(1), new Date()));
+
+        assertThat(nightClaims.claim(reservation("r1", DAY, DAY.plusDays(2)))).isFalse();
+
+        // Los dos días que sí se insertaron se liberan
+        ArgumentCaptor<Query> released = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(released.capture(), eq(NightClaim.class));
+        String filter = released.getValue().getQueryObject().toJson();
+        assertThat(filter).contains(NightClaim.idOf("s1", DAY), NightClaim.idOf("s1", DAY.plusDays(2)), "r1");
+        assertThat(filter).doesNotContain(NightClaim.idOf("s1", DAY.plusDays(1)));
+    }
+
+    @Test
+    void dayAlreadyClaimedBySameReservationIsKept() {
+        when(bulk.execute()).thenThrow(duplicateAt(0));
+        when(mongoTemplate.findById(NightClaim.idOf("s1", DAY), NightClaim.class))
+                .thenReturn(claim("r1", DAY, new Date()));
+
+        assertThat(nightClaims.claim(reservation("r1", DAY, DAY.plusDays(1)))).isTrue();
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(NightClaim.class));
+    }
+
+    @Test
+    void recentClaimIsNotTakenOverEvenIfItsReservationIsMissing() {
+        when(bulk.execute()).thenThrow(duplicateAt(0));
+        when(mongoTemplate.findById(NightClaim.idOf("s1", DAY), NightClaim.class))
+                .thenReturn(claim("r2", DAY, new Date()));
+
+        assertThat(nightClaims.claim(reservation("r1", DAY, DAY))).isFalse();
+        verify(mongoTemplate, never()).exists(any(Query.class), eq(Reservation.class));
+    }
+
+    @Test
+    void abandonedClaimIsTakenOver() {
+        when(bulk.execute()).thenThrow(duplicateAt(0));
+        when(mongoTemplate.findById(NightClaim.idOf("s1", DAY), NightClaim.class))
+                .thenReturn(claim("r2", DAY, new Date(System.currentTimeMillis() - Duration.ofMinutes(5).toMillis())));
+        when(mongoTemplate.exists(any(Query.class), eq(Reservation.class))).thenReturn(false);
+        when(mongoTemplate.updateFirst(any(Query.class), any(), eq(NightClaim.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertThat(nightClaims.claim(reservation("r1", DAY, DAY))).isTrue();
+    }
+
+    @Test
+    void rescheduleClaimsOnlyTheNewDays() {
+        assertThat(nightClaims.claim(reservation("r1", DAY.plusDays(1), DAY.plusDays(3)), DAY, DAY.plusDays(2))).isTrue();
+
+        ArgumentCaptor<List<NightClaim>> inserted = captor();
+        verify(bulk).insert(inserted.capture());
+        assertThat(inserted.getValue()).extracting(NightClaim::getId).containsExactly(NightClaim.idOf("s1", DAY.plusDays(3)));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<NightClaim>> captor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+
+    private static BulkOperationException duplicateAt(int index) {
+        BulkWriteError error = new BulkWriteError(11000, "duplicate key", new BsonDocument(), index);
+        return new BulkOperationException("duplicate key", new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 0, 0, List.of()), List.of(error), null, new ServerAddress()));
+    }
+
+    private static NightClaim claim(String reservationId, LocalDate day, Date claimedAt) {
+        NightClaim claim = new NightClaim();
+        claim.setId(NightClaim.idOf("s1", day));
+        claim.setSuiteId("s1");
+        claim.setDay(day);
+        claim.setReservationId(reservationId);
+        claim.setClaimedAt(claimedAt);
+        return claim;
+    }
+
+    private static Reservation reservation(String id, LocalDate checkIn, LocalDate checkOut) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setSuiteId("s1");
+        reservation.setCheckInDate(checkIn);
+        reservation.setCheckOutDate(checkOut);
+        return reservation;
+    }
+}
@@ -0,0 +1,48 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.Reservation;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NightsFreedTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 1);
+
+    @Test
+    void shortenedStayFreesBothEnds() {
+        assertThat(NightsFreed.rescheduled(reservation(DAY.plusDays(1), DAY.plusDays(3)), DAY, DAY.plusDays(5)))
+                .containsExactly(freed(DAY, DAY.plusDays(1)), freed(DAY.plusDays(3), DAY.plusDays(5)));
+    }
+
+    @Test
+    void stayMovedLaterFreesTheStart() {
+        assertThat(NightsFreed.rescheduled(reservation(DAY.plusDays(2), DAY.plusDays(6)), DAY, DAY.plusDays(4)))
+                .containsExactly(freed(DAY, DAY.plusDays(2)));
+    }
+
+    @Test
+    void disjointMoveFreesThePreviousStay() {
+        assertThat(NightsFreed.rescheduled(reservation(DAY.plusDays(10), DAY.plusDays(12)), DAY, DAY.plusDays(3)))
+                .containsExactly(freed(DAY, DAY.plusDays(3)));
+    }
+
+    @Test
+    void extendedStayFreesNothing() {
+        assertThat(NightsFreed.rescheduled(reservation(DAY, DAY.plusDays(6)), DAY, DAY.plusDays(4))).isEmpty();
+    }
+
+    private static NightsFreed freed(LocalDate checkIn, LocalDate checkOut) {
+        return new NightsFreed("suite-1", "Standard", checkIn, checkOut, null);
+    }
+
+    private static Reservation reservation(LocalDate checkIn, LocalDate checkOut) {
+        Reservation reservation = new Reservation();
+        reservation.setSuiteId("suite-1");
+        reservation.setSuiteType("Standard");
+        reservation.setCheckInDate(checkIn);
+        reservation.setCheckOutDate(checkOut);
+        return reservation;
+    }
+}
@@ -0,0 +1,53 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OccupancyCountersTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+
+    private final List<Object> published = new ArrayList<>();
+    private OccupancyCounters occupancyCounters;
+
+    @BeforeEach
+    void setUp() {
+        occupancyCounters = new OccupancyCounters(null, published::add, false);
+    }
+
+    @Test
+    void cancellationPublishesItsNights() {
+        occupancyCounters.remove(reservation(DAY, DAY.plusDays(3)));
+
+        assertThat(published).containsExactly(new OccupancyChanged(DAY, DAY.plusDays(2)));
+    }
+
+    @Test
+    void rescheduleUnionsPreviousAndCurrentNights() {
+        occupancyCounters.reschedule(reservation(DAY.plusDays(5), DAY.plusDays(7)), DAY, DAY.plusDays(2));
+
+        assertThat(published).containsExactly(new OccupancyChanged(DAY, DAY.plusDays(6)));
+    }
+
+    @Test
+    void rescheduleToSameDatesPublishesNothing() {
+        occupancyCounters.reschedule(reservation(DAY, DAY.plusDays(2)), DAY, DAY.plusDays(2));
+
+        assertThat(published).isEmpty();
+    }
+
+    private static Reservation reservation(LocalDate checkIn, LocalDate checkOut) {
+        Reservation reservation = new Reservation();
+        reservation.setSuiteType("Standard");
+        reservation.setSuitePrice(100.0);
+        reservation.setCheckInDate(checkIn);
+        reservation.setCheckOutDate(checkOut);
+        return reservation;
+    }
+}
@@ -0,0 +1,61 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.model.Reservation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+class ReservationHoldsTest {
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(5);
+
+    private final List<Object> published = new ArrayList<>();
+    private BookingCalendar bookingCalendar;
+    private ReservationHolds reservationHolds;
+
+    @BeforeEach
+    void setUp() {
+        bookingCalendar = Mockito.mock(BookingCalendar.class);
+        reservationHolds = new ReservationHolds(bookingCalendar, published::add, new SimpleMeterRegistry(),
+                Duration.ofMinutes(10), 1000);
+    }
+
+    @Test
+    void releasePublishesFreedNightsWithHoldId() {
+        Reservation claimed = claimed("hold-1");
+        reservationHolds.add(claimed);
+
+        assertThat(reservationHolds.release("hold-1")).isTrue();
+
+        verify(bookingCalendar).remove(claimed);
+        assertThat(published).containsExactly(
+                new NightsFreed("suite-1", "Standard", CHECK_IN, CHECK_IN.plusDays(2), "hold-1"));
+    }
+
+    @Test
+    void takeDoesNotPublish() {
+        reservationHolds.add(claimed("hold-2"));
+
+        assertThat(reservationHolds.take("hold-2")).isNotNull();
+        assertThat(reservationHolds.release("hold-2")).isFalse();
+        assertThat(published).isEmpty();
+    }
+
+    private static Reservation claimed(String id) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setSuiteId("suite-1");
+        reservation.setSuiteType("Standard");
+        reservation.setCheckInDate(CHECK_IN);
+        reservation.setCheckOutDate(CHECK_IN.plusDays(2));
+        return reservation;
+    }
+}
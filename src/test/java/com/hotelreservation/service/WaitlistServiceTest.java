@@ -0,0 +1,151 @@
+package com.hotelreservation.service;
+
+import com.hotelreservation.dto.ReservationHold;
+import com.hotelreservation.model.Reservation;
+import com.hotelreservation.model.WaitlistEntry;
+import com.hotelreservation.model.WaitlistStatus;
+import com.hotelreservation.repository.VersionedUpdates;
+import com.hotelreservation.repository.WaitlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WaitlistServiceTest {
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(10);
+    private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(3);
+    private static final String HOLD_ID = "hold-1";
+
+    private WaitlistRepository waitlistRepository;
+    private ReservationService reservationService;
+    private VersionedUpdates versionedUpdates;
+    private WaitlistService waitlistService;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepository = Mockito.mock(WaitlistRepository.class);
+        reservationService = Mockito.mock(ReservationService.class);
+        versionedUpdates = Mockito.mock(VersionedUpdates.class);
+        when(versionedUpdates.maxAttempts()).thenReturn(3);
+        waitlistService = new WaitlistService(waitlistRepository, reservationService,
+                Mockito.mock(CustomerService.class), Mockito.mock(SuiteService.class),
+                Mockito.mock(BookingCalendar.class), versionedUpdates, new SimpleMeterRegistry(), 200);
+    }
+
+    @Test
+    void freedHoldPutsOfferedEntryBackToWaiting() {
+        WaitlistEntry offered = entry("entry-1", WaitlistStatus.OFFERED, 3L);
+        offered.setHoldId(HOLD_ID);
+        when(waitlistRepository.findByHoldId(HOLD_ID)).thenReturn(Optional.of(offered));
+        when(versionedUpdates.updateIfVersion(eq(WaitlistEntry.class), eq("entry-1"), eq(3L), any()))
+                .thenReturn(Optional.of(entry("entry-1", WaitlistStatus.WAITING, 4L)));
+
+        waitlistService.onNightsFreed(freed(HOLD_ID));
+
+        Document update = capturedUpdate("entry-1", 3L);
+        assertThat(update.get("$set", Document.class).get("status")).isEqualTo(WaitlistStatus.WAITING);
+        assertThat(update.get("$unset", Document.class).keySet())
+                .containsExactlyInAnyOrder("holdId", "offeredSuiteId", "offerExpiresAt");
+    }
+
+    @Test
+    void confirmedHoldMarksEntryConfirmed() {
+        WaitlistEntry offered = entry("entry-1", WaitlistStatus.OFFERED, 3L);
+        offered.setHoldId(HOLD_ID);
+        when(waitlistRepository.findByHoldId(HOLD_ID)).thenReturn(Optional.of(offered));
+        when(versionedUpdates.updateIfVersion(eq(WaitlistEntry.class), eq("entry-1"), eq(3L), any()))
+                .thenReturn(Optional.of(entry("entry-1", WaitlistStatus.CONFIRMED, 4L)));
+
+        waitlistService.onHoldConfirmed(new HoldConfirmed(HOLD_ID));
+
+        Document update = capturedUpdate("entry-1", 3L);
+        assertThat(update.get("$set", Document.class).get("status")).isEqualTo(WaitlistStatus.CONFIRMED);
+    }
+
+    @Test
+    void lostRaceOnResetRereadsEntry() {
+        WaitlistEntry offered = entry("entry-1", WaitlistStatus.OFFERED, 3L);
+        offered.setHoldId(HOLD_ID);
+        WaitlistEntry reread = entry("entry-1", WaitlistStatus.OFFERED, 4L);
+        reread.setHoldId(HOLD_ID);
+        when(waitlistRepository.findByHoldId(HOLD_ID)).thenReturn(Optional.of(offered), Optional.of(reread));
+        when(versionedUpdates.updateIfVersion(eq(WaitlistEntry.class), eq("entry-1"), eq(3L), any()))
+                .thenReturn(Optional.empty());
+        when(versionedUpdates.updateIfVersion(eq(WaitlistEntry.class), eq("entry-1"), eq(4L), any()))
+                .thenReturn(Optional.of(entry("entry-1", WaitlistStatus.WAITING, 5L)));
+
+        waitlistService.onNightsFreed(freed(HOLD_ID));
+
+        verify(versionedUpdates).updateIfVersion(eq(WaitlistEntry.class), eq("entry-1"), eq(4L), any());
+    }
+
+    @Test
+    void reservationNightsDoNotTouchEntries() {
+        waitlistService.onNightsFreed(freed(null));
+
+        verify(waitlistRepository, never()).findByHoldId(anyString());
+    }
+
+    @Test
+    void lapsedEntryIsNotOfferedTheSameNightsAgain() {
+        WaitlistEntry offered = entry("entry-1", WaitlistStatus.OFFERED, 3L);
+        offered.setHoldId(HOLD_ID);
+        when(waitlistRepository.findByHoldId(HOLD_ID)).thenReturn(Optional.of(offered));
+        when(versionedUpdates.updateIfVersion(eq(WaitlistEntry.class), eq("entry-1"), eq(3L), any()))
+                .thenReturn(Optional.of(entry("entry-1", WaitlistStatus.WAITING, 4L)));
+        waitlistService.onNightsFreed(freed(HOLD_ID));
+
+        WaitlistEntry next = entry("entry-2", WaitlistStatus.WAITING, 0L);
+        when(waitlistRepository.findByStatusAndCheckInDateLessThanEqualAndCheckOutDateGreaterThanEqualOrderByIdAsc(
+                WaitlistStatus.WAITING, CHECK_OUT, CHECK_IN))
+                .thenReturn(List.of(entry("entry-1", WaitlistStatus.WAITING, 4L), next));
+        when(reservationService.placeHold(any())).thenReturn(new ReservationHold("hold-2", "customer-entry-2",
+                "suite-1", CHECK_IN, CHECK_OUT, Instant.now().plusSeconds(600)));
+        when(versionedUpdates.updateIfVersion(eq(WaitlistEntry.class), eq("entry-2"), eq(0L), any()))
+                .thenReturn(Optional.of(entry("entry-2", WaitlistStatus.OFFERED, 1L)));
+
+        waitlistService.match();
+
+        ArgumentCaptor<Reservation> held = ArgumentCaptor.forClass(Reservation.class);
+        verify(reservationService).placeHold(held.capture());
+        assertThat(held.getValue().getCustomerId()).isEqualTo("customer-entry-2");
+    }
+
+    private Document capturedUpdate(String id, Long version) {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(versionedUpdates).updateIfVersion(eq(WaitlistEntry.class), eq(id), eq(version), update.capture());
+        return update.getValue().getUpdateObject();
+    }
+
+    private static NightsFreed freed(String holdId) {
+        return new NightsFreed("suite-1", "Standard", CHECK_IN, CHECK_OUT, holdId);
+    }
+
+    private static WaitlistEntry entry(String id, WaitlistStatus status, Long version) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId(id);
+        entry.setVersion(version);
+        entry.setCustomerId("customer-" + id);
+        entry.setSuiteType("Standard");
+        entry.setCheckInDate(CHECK_IN);
+        entry.setCheckOutDate(CHECK_OUT);
+        entry.setStatus(status);
+        return entry;
+    }
+}